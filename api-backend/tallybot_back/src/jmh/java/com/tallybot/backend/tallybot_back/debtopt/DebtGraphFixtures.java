@@ -0,0 +1,68 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * 벤치마크용 합성 부채 그래프 생성기.
+ * 같은 seed면 항상 같은 그래프를 만든다.
+ */
+public final class DebtGraphFixtures {
+
+    private DebtGraphFixtures() {
+    }
+
+    /*
+     * members: 정점 수, edgesPerMember: 정점당 평균 간선 수(밀도),
+     * distribution: 가중치 분포
+     *  - uniform: 1,000 ~ 100,000원 균등 (10원 단위)
+     *  - skewed : 로그정규 분포, 소액이 많고 가끔 큰 금액
+     *  - equal  : 1/N 정산처럼 같은 금액이 반복되는 경우
+     */
+    public static Graph randomGraph(int members, int edgesPerMember, String distribution, long seed) {
+        Random random = new Random(seed);
+        Graph g = new Graph(members);
+        if (members < 2) return g;
+
+        long edges = (long) members * edgesPerMember;
+        for (long e = 0; e < edges; e++) {
+            int u = random.nextInt(members);
+            int v = random.nextInt(members - 1);
+            if (v >= u) v++;
+            g.addEdge(u, v, weight(random, distribution));
+        }
+        return g;
+    }
+
+    /*
+     * GraphCodec.writeCorpus로 저장한 실제 규모 그래프 중 정점 수가 members 이하인 가장 큰 것.
+     * 없으면 가장 작은 그래프를 쓴다.
+     */
+    public static Graph corpusGraph(Path corpus, int members) {
+        List<Graph> graphs = GraphCodec.readCorpus(corpus);
+        if (graphs.isEmpty()) {
+            throw new IllegalArgumentException("Empty corpus: " + corpus);
+        }
+        Graph best = null;
+        Graph smallest = graphs.get(0);
+        for (Graph g : graphs) {
+            if (g.getVertexCount() <= members && (best == null || g.getVertexCount() > best.getVertexCount())) {
+                best = g;
+            }
+            if (g.getVertexCount() < smallest.getVertexCount()) {
+                smallest = g;
+            }
+        }
+        return best != null ? best : smallest;
+    }
+
+    public static int weight(Random random, String distribution) {
+        return switch (distribution) {
+            case "uniform" -> (100 + random.nextInt(9_901)) * 10;
+            case "skewed" -> (int) Math.min(5_000_000, Math.round(Math.exp(8.5 + 1.2 * random.nextGaussian()) / 10) * 10 + 10);
+            case "equal" -> (1 + random.nextInt(4)) * 5_000;
+            default -> throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import com.tallybot.backend.tallybot_back.debtopt.WeightStrategies.MaxNumMidRemove;
+import com.tallybot.backend.tallybot_back.debtopt.WeightStrategies.MinMidRemove;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.util.Pair;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Graph 최적화 단계별 벤치마크.
+ * summarize 전체, defaultGraph, eulerize, findEulerCircuit, removeAndSplit를 각각 잰다.
+ * 시스템 속성 debtopt.corpus(GraphCodec 코퍼스 파일)가 있으면 합성 그래프 대신 그 안의 그래프를 쓴다.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GraphSummarizeBenchmark {
+
+    @Param({"5", "50", "500", "5000"})
+    public int members;
+
+    // 정점당 평균 간선 수
+    @Param({"2", "8"})
+    public int density;
+
+    @Param({"uniform", "skewed", "equal"})
+    public String distribution;
+
+    private Graph graph;
+    private Graph eulerizedGraph;
+    private int startVertex;
+    private EulerCircuit euler;
+    private InfiniteIterator<WeightStrategy> strategies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String corpus = System.getProperty("debtopt.corpus");
+        graph = corpus == null
+                ? DebtGraphFixtures.randomGraph(members, density, distribution, 42L)
+                : DebtGraphFixtures.corpusGraph(Path.of(corpus), members);
+        strategies = InfiniteIterator.begin(List.of(new MinMidRemove(), new MaxNumMidRemove()));
+
+        Graph eulerized = new Graph(graph);
+        Pair<Integer, List<ThreeTuple<Integer, Integer, Integer>>> p = eulerized.eulerize();
+        eulerizedGraph = eulerized;
+        startVertex = Math.max(p.getFirst(), 0);
+        euler = eulerized.findEulerCircuit(startVertex);
+    }
+
+    /*
+     * removeAndSplit은 입력 뷰를 소비하므로 호출마다 새로 만든다.
+     * Level.Invocation setup이 다른 벤치마크에 붙지 않도록 따로 둔 State
+     */
+    @State(Scope.Thread)
+    public static class CircuitState {
+        private FlattedGraph circuit;
+
+        @Setup(Level.Invocation)
+        public void newCircuit(GraphSummarizeBenchmark graphs) {
+            circuit = new FlattedGraph(graphs.strategies, graphs.euler);
+        }
+    }
+
+    @Benchmark
+    public Graph summarize() {
+        return Graph.summarize(graph);
+    }
+
+    @Benchmark
+    public Graph defaultGraph() {
+        return graph.defaultGraph();
+    }
+
+    @Benchmark
+    public Pair<Integer, List<ThreeTuple<Integer, Integer, Integer>>> eulerize() {
+        // eulerize는 그래프를 바꾸므로 복사본에서 실행한다.
+        return new Graph(graph).eulerize();
+    }
+
+    @Benchmark
+    public EulerCircuit findEulerCircuit() {
+        return eulerizedGraph.findEulerCircuit(startVertex);
+    }
+
+    @Benchmark
+    public List<FlattedGraph> removeAndSplit(CircuitState state) {
+        return Graph.removeAndSplit(state.circuit, strategies);
+    }
+}
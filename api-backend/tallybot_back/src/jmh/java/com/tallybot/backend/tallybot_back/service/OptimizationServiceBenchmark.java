@@ -0,0 +1,54 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.debtopt.BalancePatternCache;
+import com.tallybot.backend.tallybot_back.debtopt.OptimizerCapture;
+import com.tallybot.backend.tallybot_back.debtopt.ShadowOptimizer;
+import com.tallybot.backend.tallybot_back.debtopt.StrategyPortfolio;
+import com.tallybot.backend.tallybot_back.domain.Settlement;
+import com.tallybot.backend.tallybot_back.repository.CalculateDetailRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * OptimizationService.calculateAndOptimize 전 과정(몫 계산 -> 그래프 최적화 -> 저장 직전)을 잰다.
+ * 저장소는 saveAll만 인자를 그대로 돌려주는 프록시로 대체하고, 결과 캐시는 끈다.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OptimizationServiceBenchmark {
+
+    @Param({"5", "50", "500", "5000"})
+    public int members;
+
+    @Param({"20", "500"})
+    public int settlements;
+
+    @Param({"4", "30"})
+    public int participantsPerSettlement;
+
+    private OptimizationService optimizationService;
+    private List<Settlement> settlementList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CalculateDetailRepository repository = (CalculateDetailRepository) Proxy.newProxyInstance(
+                CalculateDetailRepository.class.getClassLoader(),
+                new Class<?>[]{CalculateDetailRepository.class},
+                (proxy, method, args) -> "saveAll".equals(method.getName()) ? args[0] : null);
+        optimizationService = new OptimizationService(repository, new SimpleMeterRegistry(),
+                new StrategyPortfolio(StrategyPortfolio.boundedExecutor(2), Duration.ofSeconds(2)),
+                new CalculateBalanceCache(), new BalancePatternCache(0), OptimizerCapture.disabled(),
+                ShadowOptimizer.disabled());
+        settlementList = SettlementFixtures.settlements(members, settlements, participantsPerSettlement, 42L);
+    }
+
+    @Benchmark
+    public void calculateAndOptimize() {
+        optimizationService.calculateAndOptimize(settlementList);
+    }
+}
@@ -0,0 +1,63 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.domain.*;
+
+import java.util.*;
+
+/*
+ * 벤치마크용 메모리 내 Settlement 생성기 (DB 없이 사용).
+ */
+public final class SettlementFixtures {
+
+    private SettlementFixtures() {
+    }
+
+    /*
+     * members명이 있는 그룹에서 settlements개의 결제를 만든다.
+     * 각 결제는 임의의 결제자와 participantsPerSettlement명의 참여자를 가지며,
+     * 절반은 1/N, 나머지는 고정 금액 + 임의 비율로 나눈다.
+     */
+    public static List<Settlement> settlements(int members, int settlements, int participantsPerSettlement, long seed) {
+        Random random = new Random(seed);
+        UserGroup group = UserGroup.builder().groupId(1L).groupName("bench").build();
+        Calculate calculate = Calculate.builder().calculateId(1L).userGroup(group).status(CalculateStatus.CALCULATING).build();
+
+        List<Member> memberList = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            memberList.add(Member.builder().memberId((long) i + 1).nickname("m" + i).userGroup(group).build());
+        }
+
+        int perSettlement = Math.min(participantsPerSettlement, members);
+        List<Settlement> res = new ArrayList<>(settlements);
+        for (int s = 0; s < settlements; s++) {
+            Settlement settlement = Settlement.builder()
+                    .settlementId((long) s + 1)
+                    .place("place" + s)
+                    .item("item" + s)
+                    .amount((1 + random.nextInt(2_000)) * 100)
+                    .userGroup(group)
+                    .payer(memberList.get(random.nextInt(members)))
+                    .calculate(calculate)
+                    .build();
+
+            Collections.shuffle(memberList, random);
+            boolean evenSplit = random.nextBoolean();
+            int[] ratios = new int[perSettlement];
+            int ratioSum = 0;
+            for (int i = 0; i < perSettlement; i++) {
+                ratios[i] = evenSplit ? 1 : 1 + random.nextInt(3);
+                ratioSum += ratios[i];
+            }
+
+            Set<Participant> participants = new HashSet<>();
+            for (int i = 0; i < perSettlement; i++) {
+                int constant = (!evenSplit && i == 0) ? Math.min(settlement.getAmount(), 1_000) : 0;
+                Participant.ParticipantKey key = new Participant.ParticipantKey(settlement, memberList.get(i));
+                participants.add(new Participant(key, constant, new Ratio(ratios[i], ratioSum)));
+            }
+            settlement.setParticipants(participants);
+            res.add(settlement);
+        }
+        return res;
+    }
+}
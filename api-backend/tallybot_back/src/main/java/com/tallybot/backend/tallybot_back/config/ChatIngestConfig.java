@@ -0,0 +1,77 @@
+package com.tallybot.backend.tallybot_back.config;
+
+import com.tallybot.backend.tallybot_back.service.ChatAppendLog;
+import com.tallybot.backend.tallybot_back.service.ChatFingerprintFilter;
+import com.tallybot.backend.tallybot_back.service.ChatIngestService;
+import com.tallybot.backend.tallybot_back.service.ChatService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class ChatIngestConfig {
+
+    // 비동기 채팅 수집 (기본은 꺼져 있고, /api/chat/upload가 바로 DB에 저장한다)
+    @Value("${chat.ingest.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${chat.ingest.dir:chat-ingest}")
+    private String dir;
+
+    @Value("${chat.ingest.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    // ChatService.saveChats가 트랜잭션 하나로 저장하도록 chat.upload.batch-size와 맞춘다.
+    @Value("${chat.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Value("${chat.ingest.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    // 정산 전 flush()가 이보다 오래 걸리면 정산을 시작하지 않는다.
+    @Value("${chat.ingest.flush-timeout-ms:10000}")
+    private long flushTimeoutMs;
+
+    // 같은 배치가 이만큼 실패하면 한 건씩 저장해 보고 실패한 건은 {dir}/rejected로 옮긴다.
+    @Value("${chat.ingest.max-attempts:5}")
+    private int maxAttempts;
+
+    // 중복 판별 Bloom filter 크기 (이 수를 넘게 쌓이면 오탐이 늘어 DB 확인이 잦아진다)
+    @Value("${chat.dedup.expected-chats:1000000}")
+    private long dedupExpectedChats;
+
+    @Value("${chat.dedup.false-positive-rate:0.01}")
+    private double dedupFalsePositiveRate;
+
+    // chat.dedup.filter{result=negative}: 조회 없이 새 채팅으로 본 수, positive: DB 확인으로 넘긴 수
+    @Bean
+    public ChatFingerprintFilter chatFingerprintFilter(MeterRegistry meterRegistry) {
+        ChatFingerprintFilter filter = new ChatFingerprintFilter(dedupExpectedChats, dedupFalsePositiveRate);
+        FunctionCounter.builder("chat.dedup.filter", filter, ChatFingerprintFilter::negatives)
+                .tag("result", "negative").register(meterRegistry);
+        FunctionCounter.builder("chat.dedup.filter", filter, ChatFingerprintFilter::positives)
+                .tag("result", "positive").register(meterRegistry);
+        return filter;
+    }
+
+    // chat.ingest.pending: 202로 받았지만 아직 DB에 옮기지 않은 채팅 수, chat.ingest.rejected: rejected로 옮긴 수
+    @Bean(destroyMethod = "close")
+    public ChatIngestService chatIngestService(ChatService chatService, MeterRegistry meterRegistry) {
+        if (!enabled) {
+            return ChatIngestService.disabled();
+        }
+        ChatIngestService ingest = new ChatIngestService(new ChatAppendLog(Path.of(dir), segmentBytes),
+                new ChatAppendLog(Path.of(dir, "rejected"), segmentBytes), chatService, batchSize,
+                Duration.ofMillis(flushIntervalMs), Duration.ofMillis(flushTimeoutMs), maxAttempts);
+        Gauge.builder("chat.ingest.pending", ingest, ChatIngestService::pending).register(meterRegistry);
+        FunctionCounter.builder("chat.ingest.rejected", ingest, ChatIngestService::rejectedCount)
+                .register(meterRegistry);
+        return ingest;
+    }
+}
@@ -0,0 +1,132 @@
+package com.tallybot.backend.tallybot_back.config;
+
+import com.tallybot.backend.tallybot_back.debtopt.BalancePatternCache;
+import com.tallybot.backend.tallybot_back.debtopt.OptimizerCapture;
+import com.tallybot.backend.tallybot_back.debtopt.ShadowOptimizer;
+import com.tallybot.backend.tallybot_back.debtopt.StrategyPortfolio;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class OptimizerConfig {
+
+    @Value("${optimizer.portfolio.threads:2}")
+    private int portfolioThreads;
+
+    @Value("${optimizer.portfolio.budget-ms:2000}")
+    private long portfolioBudgetMs;
+
+    // 0이면 결과 캐시를 쓰지 않음
+    @Value("${optimizer.cache.max-weight:" + BalancePatternCache.DEFAULT_MAX_WEIGHT + "}")
+    private long cacheMaxWeight;
+
+    // 최적화 입력 기록 (OptimizerReplay로 재생). 기본은 꺼져 있다.
+    @Value("${optimizer.capture.enabled:false}")
+    private boolean captureEnabled;
+
+    @Value("${optimizer.capture.dir:optimizer-capture}")
+    private String captureDir;
+
+    @Value("${optimizer.capture.max-file-bytes:67108864}")
+    private long captureMaxFileBytes;
+
+    @Value("${optimizer.capture.max-files:8}")
+    private int captureMaxFiles;
+
+    // 후보 엔진 섀도 비교 (엔진 이름이 비어 있으면 끔)
+    @Value("${optimizer.shadow.engine:}")
+    private String shadowEngine;
+
+    @Value("${optimizer.shadow.sample-rate:0.05}")
+    private double shadowSampleRate;
+
+    @Value("${optimizer.shadow.threads:1}")
+    private int shadowThreads;
+
+    @Value("${optimizer.shadow.queue-size:4}")
+    private int shadowQueueSize;
+
+    // 전략 포트폴리오 전용 풀 (종료 시 close()로 정리)
+    @Bean
+    public StrategyPortfolio strategyPortfolio() {
+        return new StrategyPortfolio(StrategyPortfolio.boundedExecutor(portfolioThreads),
+                Duration.ofMillis(portfolioBudgetMs));
+    }
+
+    // 적중률은 optimizer.cache.requests{result=hit} / 전체 requests 로 본다.
+    @Bean
+    public BalancePatternCache balancePatternCache(MeterRegistry meterRegistry) {
+        BalancePatternCache cache = new BalancePatternCache(cacheMaxWeight);
+        FunctionCounter.builder("optimizer.cache.requests", cache, BalancePatternCache::hits)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("optimizer.cache.requests", cache, BalancePatternCache::misses)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("optimizer.cache.evictions", cache, BalancePatternCache::evictions)
+                .register(meterRegistry);
+        Gauge.builder("optimizer.cache.entries", cache, BalancePatternCache::size).register(meterRegistry);
+        Gauge.builder("optimizer.cache.weight", cache, BalancePatternCache::weight).register(meterRegistry);
+        return cache;
+    }
+
+    @Bean(destroyMethod = "close")
+    public OptimizerCapture optimizerCapture() {
+        if (!captureEnabled) {
+            return OptimizerCapture.disabled();
+        }
+        return new OptimizerCapture(Path.of(captureDir), captureMaxFileBytes, captureMaxFiles);
+    }
+
+    /*
+     * 섀도 엔진 비교 메트릭 (engine 태그는 후보 엔진 이름)
+     *  - optimizer.shadow.runs{result=balanced|unbalanced|failed}: 비교 횟수, unbalanced/failed는 승격하면 안 되는 신호
+     *  - optimizer.shadow.edges / amount / latency{role=primary|shadow}: 실제 결과와 후보 결과의 간선 수, 송금 총액, 시간
+     *  - optimizer.shadow.outcome{outcome=fewer|same|more}: 후보가 실제보다 간선이 적은지
+     *  - optimizer.shadow.submitted / rejected: 뽑혀서 제출된 수, 대기열이 차서 건너뛴 수
+     */
+    @Bean(destroyMethod = "close")
+    public ShadowOptimizer shadowOptimizer(MeterRegistry meterRegistry) {
+        if (shadowEngine == null || shadowEngine.isBlank()) {
+            return ShadowOptimizer.disabled();
+        }
+        ShadowOptimizer shadow = ShadowOptimizer.named(shadowEngine.trim(), shadowSampleRate,
+                ShadowOptimizer.boundedExecutor(shadowThreads, shadowQueueSize),
+                c -> recordShadow(meterRegistry, c));
+        FunctionCounter.builder("optimizer.shadow.submitted", shadow, ShadowOptimizer::submitted)
+                .tag("engine", shadow.engineName()).register(meterRegistry);
+        FunctionCounter.builder("optimizer.shadow.rejected", shadow, ShadowOptimizer::rejected)
+                .tag("engine", shadow.engineName()).register(meterRegistry);
+        return shadow;
+    }
+
+    private static void recordShadow(MeterRegistry meterRegistry, ShadowOptimizer.Comparison c) {
+        String result = c.failure() != null ? "failed" : (c.balanced() ? "balanced" : "unbalanced");
+        meterRegistry.counter("optimizer.shadow.runs", "engine", c.engine(), "result", result).increment();
+        Timer.builder("optimizer.shadow.latency").tags("engine", c.engine(), "role", "primary")
+                .register(meterRegistry).record(c.primaryNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("optimizer.shadow.latency").tags("engine", c.engine(), "role", "shadow")
+                .register(meterRegistry).record(c.shadowNanos(), TimeUnit.NANOSECONDS);
+        if (c.failure() != null) return;
+
+        DistributionSummary.builder("optimizer.shadow.edges").tags("engine", c.engine(), "role", "primary")
+                .register(meterRegistry).record(c.primaryEdges());
+        DistributionSummary.builder("optimizer.shadow.edges").tags("engine", c.engine(), "role", "shadow")
+                .register(meterRegistry).record(c.shadowEdges());
+        DistributionSummary.builder("optimizer.shadow.amount").tags("engine", c.engine(), "role", "primary")
+                .register(meterRegistry).record(c.primaryAmount());
+        DistributionSummary.builder("optimizer.shadow.amount").tags("engine", c.engine(), "role", "shadow")
+                .register(meterRegistry).record(c.shadowAmount());
+        String outcome = c.shadowEdges() < c.primaryEdges() ? "fewer"
+                : (c.shadowEdges() == c.primaryEdges() ? "same" : "more");
+        meterRegistry.counter("optimizer.shadow.outcome", "engine", c.engine(), "outcome", outcome).increment();
+    }
+}
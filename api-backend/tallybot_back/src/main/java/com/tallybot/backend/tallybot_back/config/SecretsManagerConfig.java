@@ -59,9 +59,10 @@ public class SecretsManagerConfig {
             String username = getJsonValue(secretJson, "username");
             String password = getJsonValue(secretJson, "password");
 
-            // MySQL URL 생성
+            // MySQL URL 생성 (rewriteBatchedStatements: JDBC 배치 insert를 여러 행 insert 한 문장으로 보냄)
             String jdbcUrl = String.format(
-                    "jdbc:mysql://%s:%s/%s?useSSL=true&serverTimezone=Asia/Seoul&characterEncoding=UTF-8&allowPublicKeyRetrieval=true",
+                    "jdbc:mysql://%s:%s/%s?useSSL=true&serverTimezone=Asia/Seoul&characterEncoding=UTF-8&allowPublicKeyRetrieval=true"
+                            + "&rewriteBatchedStatements=true",
                     host, port, dbname
             );
 
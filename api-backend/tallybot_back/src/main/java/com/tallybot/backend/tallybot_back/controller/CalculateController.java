@@ -6,6 +6,7 @@ import com.tallybot.backend.tallybot_back.repository.CalculateDetailRepository;
 import com.tallybot.backend.tallybot_back.repository.CalculateRepository;
 import com.tallybot.backend.tallybot_back.repository.SettlementRepository;
 import com.tallybot.backend.tallybot_back.service.CalculateService;
+import com.tallybot.backend.tallybot_back.service.ChatIngestService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -24,6 +25,7 @@ public class CalculateController {
     private final CalculateRepository calculateRepository;
     private final SettlementRepository settlementRepository;
     private final CalculateDetailRepository calculateDetailRepository;
+    private final ChatIngestService chatIngestService;
 
     @PostMapping("/start")
     public ResponseEntity<?> startCalculate(@Valid @RequestBody CalculateRequestDto request) {
@@ -40,6 +42,10 @@ public class CalculateController {
                     .body(new ErrorResponse("Group not found."));
         }
 
+        // 비동기 수집 모드면 지금까지 202로 받은 채팅을 먼저 DB에 옮긴다.
+        // startCalculate의 트랜잭션이 열리기 전에 해야 그 트랜잭션의 스냅샷에 보인다. (REPEATABLE READ)
+        chatIngestService.flush();
+
         // 정산 시작
         Long calculateId = calculateService.startCalculate(request);
         return ResponseEntity.ok(new CalculateIdDto(calculateId));
@@ -4,15 +4,21 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.tallybot.backend.tallybot_back.dto.*;
+import com.tallybot.backend.tallybot_back.service.ChatIngestService;
 import com.tallybot.backend.tallybot_back.service.ChatService;
+import com.tallybot.backend.tallybot_back.service.ChatStreamService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.aspectj.bridge.Message;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
@@ -22,6 +28,8 @@ import java.util.List;
 public class ChatController {
 
     private final ChatService chatService;
+    private final ChatStreamService chatStreamService;
+    private final ChatIngestService chatIngestService;
 
     @PostMapping("/upload")
     public ResponseEntity<?> uploadChat(@Valid @RequestBody List<@Valid ChatDto> chatDtoList) {
@@ -31,8 +39,26 @@ public class ChatController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ErrorResponse("Group or member not found for given data."));
         }
-        chatService.saveChats(chatDtoList); // 채팅 저장
-        return ResponseEntity.ok(new MessageResponse("Upload successful. Chat count: " + chatDtoList.size()));
+        // 비동기 수집 모드: 로컬 로그에 fsync까지 한 뒤 202로 응답하고, DB 저장은 flusher가 한다.
+        if (chatIngestService.isEnabled()) {
+            chatIngestService.accept(chatDtoList);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new MessageResponse("Upload accepted. Chat count: " + chatDtoList.size()));
+        }
+        int deduplicated = chatService.saveChats(chatDtoList); // 채팅 저장 (이미 있는 채팅은 건너뜀)
+        return ResponseEntity.ok(new ChatUploadResponse(
+                "Upload successful. Chat count: " + chatDtoList.size(), deduplicated));
+    }
+
+    /*
+     * 대량 백필용 스트리밍 업로드. 본문은 /upload와 같은 JSON 배열이다.
+     * 실패 응답의 committed를 offset으로 붙여 같은 본문을 다시 보내면 저장된 부분은 건너뛴다.
+     */
+    @PostMapping(value = "/upload/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ChatUploadProgressDto> uploadChatStream(HttpServletRequest request,
+                                                                  @RequestParam(defaultValue = "0") long offset)
+            throws IOException {
+        return ResponseEntity.ok(chatStreamService.upload(request.getInputStream(), offset));
     }
 
     @GetMapping("/group/{groupId}")
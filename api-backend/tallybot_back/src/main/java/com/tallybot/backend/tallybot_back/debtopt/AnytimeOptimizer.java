@@ -0,0 +1,105 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+/*
+ * 제한 시간 안에서 가장 좋은 결과를 돌려주는 최적화.
+ * defaultGraph(송금 n - 1번 이하)로 시작해, 시간이 남는 동안 아래 순서로 더 나은 결과를 찾는다.
+ *  1. GreedyNetting
+ *  2. 잔액이 0이 아닌 사람이 DP_LIMIT명 이하면 비트마스크 DP (최적 증명)
+ *  3. 휴리스틱 (제한 시간이 지나면 남은 조각은 defaultGraph로 정리)
+ *  4. cutoff명 이하면 분기 한정 탐색 (끝까지 돌면 최적 증명)
+ * 중간에 결과가 하한(n - k)에 닿으면 최적이므로 바로 끝낸다.
+ */
+public final class AnytimeOptimizer {
+
+    private AnytimeOptimizer() {
+    }
+
+    // 제한 시간을 받는 휴리스틱 (예: Graph::summarize, ParallelSummarizer::summarize)
+    @FunctionalInterface
+    public interface Heuristic {
+        Graph apply(Graph g, Deadline deadline);
+    }
+
+    public static Result summarize(Graph g, int cutoff, Deadline deadline) {
+        return summarize(g, cutoff, deadline, Graph::summarize);
+    }
+
+    public static Result summarize(Graph g, int cutoff, Deadline deadline, Heuristic heuristic) {
+        int[] balances = g.csr().balances();
+        int lowerBound = StrategyPortfolio.lowerBound(balances);
+        Best best = new Best(g.defaultGraph(), lowerBound);
+        if (best.optimal || deadline.expired()) return best.result();
+
+        if (best.offer(GreedyNetting.summarize(balances)) || deadline.expired()) return best.result();
+
+        int n = 0;
+        for (int b : balances) {
+            if (b != 0) n++;
+        }
+        int[] vertices = new int[n];
+        long[] amounts = new long[n];
+        for (int v = 0, i = 0; v < balances.length; v++) {
+            if (balances[v] != 0) {
+                vertices[i] = v;
+                amounts[i++] = balances[v];
+            }
+        }
+
+        if (n <= ExactOptimizer.DP_LIMIT) {
+            Graph exact = new Graph(g.getVertexCount());
+            ExactOptimizer.settleInOrder(exact, vertices, amounts, ExactOptimizer.zeroSumOrder(amounts));
+            best.offer(exact);
+            best.optimal = true;
+            return best.result();
+        }
+
+        if (best.offer(heuristic.apply(g, deadline)) || deadline.expired()) return best.result();
+
+        if (n <= cutoff) {
+            ExactOptimizer.BranchAndBound bnb = new ExactOptimizer.BranchAndBound(amounts, deadline);
+            boolean complete = bnb.search();
+            if (bnb.bestCount > 0) {
+                Graph found = new Graph(g.getVertexCount());
+                for (int t = 0; t < bnb.bestCount; t++) {
+                    found.addEdge(vertices[bnb.bestFrom[t]], vertices[bnb.bestTo[t]], (int) bnb.bestAmount[t]);
+                }
+                best.offer(found);
+            }
+            // 분기 한정이 끝까지 돌았으면 그 결과보다 나은 해는 없다.
+            if (complete) best.optimal = true;
+        }
+        return best.result();
+    }
+
+    private static final class Best {
+        private final int lowerBound;
+        Graph graph;
+        boolean optimal;
+
+        Best(Graph graph, int lowerBound) {
+            this.lowerBound = lowerBound;
+            this.graph = graph;
+            this.optimal = graph.getEdgeCount() <= lowerBound;
+        }
+
+        // 더 나으면 바꾸고, 하한에 닿았으면 true
+        boolean offer(Graph candidate) {
+            if (candidate.getEdgeCount() < graph.getEdgeCount()) {
+                graph = candidate;
+            }
+            optimal |= graph.getEdgeCount() <= lowerBound;
+            return optimal;
+        }
+
+        Result result() {
+            return new Result(graph, optimal);
+        }
+    }
+
+    /*
+     * graph: 지금까지 가장 간선이 적은 결과 (잔액은 항상 입력과 같다)
+     * provenOptimal: 송금 횟수가 최소임이 증명되었는지
+     */
+    public record Result(Graph graph, boolean provenOptimal) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.util.*;
+
+/*
+ * 잔액 벡터가 같으면 최적 송금도 같다는 점을 이용한 결과 캐시.
+ * 키는 0이 아닌 잔액을 정렬한 배열(표준형)이고, 값은 그 정렬 순서의 위치로 적은 송금 패턴이다.
+ * 같은 잔액의 멤버끼리는 서로 바꿔도 되므로, 조회할 때 현재 그래프의 정렬 순서로 다시 대응시킨다.
+ * 크기는 항목 수가 아니라 int 개수(키 길이 + 송금 수 * 3)로 재고, 넘치면 가장 오래 안 쓴 항목부터 버린다.
+ */
+public final class BalancePatternCache {
+    public static final long DEFAULT_MAX_WEIGHT = 1_000_000L;
+
+    private final long maxWeight;
+    private final LinkedHashMap<Key, Pattern> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BalancePatternCache() {
+        this(DEFAULT_MAX_WEIGHT);
+    }
+
+    // maxWeight가 0이면 아무것도 저장하지 않는다.
+    public BalancePatternCache(long maxWeight) {
+        this.maxWeight = Math.max(0, maxWeight);
+    }
+
+    // 같은 잔액 벡터의 결과가 있으면 g의 정점 번호로 바꿔 돌려준다.
+    public Optional<Graph> lookup(Graph g) {
+        int[] balances = g.csr().balances();
+        int[] order = canonicalOrder(balances);
+        Key key = keyOf(balances, order);
+
+        Pattern p;
+        synchronized (this) {
+            p = entries.get(key);
+            if (p == null) {
+                misses++;
+                return Optional.empty();
+            }
+            hits++;
+        }
+
+        Graph res = new Graph(g.getVertexCount());
+        for (int i = 0; i < p.from.length; i++) {
+            res.addEdge(order[p.from[i]], order[p.to[i]], p.amount[i]);
+        }
+        return Optional.of(res);
+    }
+
+    /*
+     * g의 최적화 결과를 저장한다.
+     * 잔액이 0인 멤버를 거치는 송금이 있으면 표준형으로 나타낼 수 없으므로 저장하지 않는다.
+     */
+    public void put(Graph g, Graph result) {
+        if (maxWeight == 0) return;
+
+        int[] balances = g.csr().balances();
+        int[] order = canonicalOrder(balances);
+        int[] position = new int[balances.length];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+
+        int m = result.getEdgeCount();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] amount = new int[m];
+        int[] count = new int[1];
+        boolean[] representable = {true};
+        result.forEachEdge((source, destination, w) -> {
+            if (w == 0) return;
+            if (position[source] == -1 || position[destination] == -1) {
+                representable[0] = false;
+                return;
+            }
+            from[count[0]] = position[source];
+            to[count[0]] = position[destination];
+            amount[count[0]++] = w;
+        });
+        if (!representable[0]) return;
+
+        Key key = keyOf(balances, order);
+        Pattern p = new Pattern(Arrays.copyOf(from, count[0]), Arrays.copyOf(to, count[0]), Arrays.copyOf(amount, count[0]));
+        long w = key.sorted.length + 3L * count[0];
+        if (w > maxWeight) return;
+
+        synchronized (this) {
+            Pattern old = entries.put(key, p);
+            if (old != null) {
+                weight -= key.sorted.length + 3L * old.from.length;
+            }
+            weight += w;
+            Iterator<Map.Entry<Key, Pattern>> it = entries.entrySet().iterator();
+            while (weight > maxWeight && it.hasNext()) {
+                Map.Entry<Key, Pattern> e = it.next();
+                weight -= e.getKey().sorted.length + 3L * e.getValue().from.length;
+                it.remove();
+                evictions++;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    // 0이 아닌 잔액의 정점을 (잔액, 정점 번호) 순으로 정렬한다.
+    static int[] canonicalOrder(int[] balances) {
+        int n = 0;
+        for (int b : balances) {
+            if (b != 0) n++;
+        }
+        long[] packed = new long[n];
+        for (int v = 0, i = 0; v < balances.length; v++) {
+            if (balances[v] != 0) {
+                packed[i++] = ((long) balances[v] << 32) | v;
+            }
+        }
+        Arrays.sort(packed);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    private static Key keyOf(int[] balances, int[] order) {
+        int[] sorted = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = balances[order[i]];
+        }
+        return new Key(sorted, Arrays.hashCode(sorted));
+    }
+
+    private record Key(int[] sorted, int hash) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && hash == k.hash && Arrays.equals(sorted, k.sorted);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // 표준형 위치 기준 송금: from[i] -> to[i] 로 amount[i]
+    private record Pattern(int[] from, int[] to, int[] amount) {
+    }
+}
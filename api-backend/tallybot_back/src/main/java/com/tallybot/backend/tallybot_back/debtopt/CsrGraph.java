@@ -0,0 +1,519 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/*
+ * 원시 int 배열 기반의 부채 그래프.
+ * 각 정점은 targets/weights 배열 안에 [offsets[v], offsets[v] + degrees[v]) 구간을 가지며,
+ * 구간이 가득 차면 배열 끝으로 옮겨 두 배로 늘린다(제자리 확장).
+ * 간선은 양 끝점에 한 칸씩(가중치는 부호 반대) 저장되고, mates로 서로의 칸을 가리킨다.
+ */
+public final class CsrGraph {
+    private static final int INITIAL_SLOT = 4;
+
+    private final int vertexCount;
+    private final int[] offsets;
+    private final int[] degrees;
+    private final int[] capacities;
+    private int[] targets;
+    private int[] weights;
+    private int[] mates;
+    // targets/weights에서 사용 중인 끝 위치
+    private int used;
+    private int edgeCount;
+
+    public CsrGraph(int vertices) {
+        this(vertices, vertices);
+    }
+
+    public CsrGraph(int vertices, int expectedEdges) {
+        if (vertices < 0) {
+            throw new IllegalArgumentException("Invalid vertex count");
+        }
+        vertexCount = vertices;
+        offsets = new int[vertices];
+        degrees = new int[vertices];
+        capacities = new int[vertices];
+        int slots = Math.max(2 * expectedEdges, INITIAL_SLOT);
+        targets = new int[slots];
+        weights = new int[slots];
+        mates = new int[slots];
+        used = 0;
+        edgeCount = 0;
+    }
+
+    // 복사 생성자: 비어 있는 칸 없이 압축하여 복사한다.
+    public CsrGraph(CsrGraph g) {
+        vertexCount = g.vertexCount;
+        offsets = new int[vertexCount];
+        degrees = Arrays.copyOf(g.degrees, vertexCount);
+        capacities = Arrays.copyOf(g.degrees, vertexCount);
+        int total = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v] = total;
+            total += degrees[v];
+        }
+        int slots = Math.max(total, INITIAL_SLOT);
+        targets = new int[slots];
+        weights = new int[slots];
+        mates = new int[slots];
+        for (int v = 0; v < vertexCount; v++) {
+            int from = g.offsets[v];
+            int to = offsets[v];
+            System.arraycopy(g.targets, from, targets, to, degrees[v]);
+            System.arraycopy(g.weights, from, weights, to, degrees[v]);
+            for (int i = 0; i < degrees[v]; i++) {
+                int t = g.targets[from + i];
+                mates[to + i] = offsets[t] + (g.mates[from + i] - g.offsets[t]);
+            }
+        }
+        used = total;
+        edgeCount = g.edgeCount;
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public int degree(int v) {
+        return degrees[v];
+    }
+
+    // v의 i번째 인접 정점
+    public int target(int v, int i) {
+        return targets[offsets[v] + i];
+    }
+
+    // v에서 i번째 인접 정점으로 가는 가중치
+    public int weightAt(int v, int i) {
+        return weights[offsets[v] + i];
+    }
+
+    public boolean hasEdge(int source, int destination) {
+        checkVertex(source, destination);
+        return slot(source, destination) != -1;
+    }
+
+    // 간선이 없으면 Integer.MAX_VALUE
+    public int getWeight(int source, int destination) {
+        checkVertex(source, destination);
+        int s = slot(source, destination);
+        return s == -1 ? Integer.MAX_VALUE : weights[s];
+    }
+
+    // 간선 추가: 기존 간선이 있으면 가중치를 누적한다.
+    public void addEdge(int source, int destination, int weight) {
+        checkVertex(source, destination);
+        int s = slot(source, destination);
+        if (s == -1) {
+            append(source, destination, weight);
+        } else {
+            setWeight(s, weights[s] + weight);
+        }
+    }
+
+    public boolean removeEdge(int source, int destination) {
+        checkVertex(source, destination);
+        int s = slot(source, destination);
+        if (s == -1) {
+            return false;
+        }
+        removeSlot(destination, mates[s]);
+        removeSlot(source, s);
+        edgeCount--;
+        return true;
+    }
+
+    // 가중치를 더하고, 0이 되면 간선을 지운다.
+    public void plusWeight(int source, int destination, int diffWeight) {
+        checkVertex(source, destination);
+        int s = slot(source, destination);
+        if (s == -1) {
+            if (diffWeight != 0) {
+                append(source, destination, diffWeight);
+            }
+            return;
+        }
+        int weight = weights[s] + diffWeight;
+        if (weight == 0) {
+            removeSlot(destination, mates[s]);
+            removeSlot(source, s);
+            edgeCount--;
+        } else {
+            setWeight(s, weight);
+        }
+    }
+
+    public void computeWeight(int source, int destination, IntUnaryOperator remappingFunction) {
+        checkVertex(source, destination);
+        int s = slot(source, destination);
+        if (s == -1) {
+            throw new IllegalArgumentException("Edge does not exist");
+        }
+        setWeight(s, remappingFunction.applyAsInt(weights[s]));
+    }
+
+    // 각 정점의 (받을 돈 - 줄 돈)
+    public int[] balances() {
+        int[] balances = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            int sum = 0;
+            for (int i = offsets[v], end = offsets[v] + degrees[v]; i < end; i++) {
+                sum += weights[i];
+            }
+            balances[v] = -sum;
+        }
+        return balances;
+    }
+
+    // 모든 간선을 가중치가 0 이상인 방향으로 한 번씩 방문한다.
+    public void forEachEdge(EdgeConsumer consumer) {
+        for (int v = 0; v < vertexCount; v++) {
+            for (int i = offsets[v], end = offsets[v] + degrees[v]; i < end; i++) {
+                int w = weights[i];
+                if (w > 0 || (w == 0 && v < targets[i])) {
+                    consumer.accept(v, targets[i], w);
+                }
+            }
+        }
+    }
+
+    // other의 모든 간선을 이 그래프에 더한다.
+    public void plusAll(CsrGraph other) {
+        if (other.vertexCount > vertexCount) {
+            throw new IllegalArgumentException("Invalid vertex index");
+        }
+        other.forEachEdge(this::plusWeight);
+    }
+
+    public void removeZero() {
+        for (int v = 0; v < vertexCount; v++) {
+            for (int i = degrees[v] - 1; i >= 0; i--) {
+                int s = offsets[v] + i;
+                if (weights[s] == 0) {
+                    int t = targets[s];
+                    removeSlot(t, mates[s]);
+                    removeSlot(v, s);
+                    edgeCount--;
+                }
+            }
+        }
+    }
+
+    // BFS 최단 경로. 경로가 없으면 빈 배열
+    public int[] findShortestPath(int source, int destination) {
+        GraphWorkspace ws = GraphWorkspace.get();
+        int length = shortestPath(source, destination, ws);
+        return Arrays.copyOf(ws.path, length);
+    }
+
+    /*
+     * 할당 없는 BFS 커널. 최단 경로를 ws.path 앞쪽에 담고 그 길이를 돌려준다. (없으면 0)
+     * 경로는 destination에서 parent를 따라 뒤로 쌓은 뒤 제자리에서 뒤집는다.
+     */
+    int shortestPath(int source, int destination, GraphWorkspace ws) {
+        checkVertex(source, destination);
+
+        int epoch = ws.nextEpoch(vertexCount);
+        int[] mark = ws.mark;
+        int[] parent = ws.parent = GraphWorkspace.ensure(ws.parent, vertexCount);
+        int[] queue = ws.queue = GraphWorkspace.ensure(ws.queue, vertexCount);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        mark[source] = epoch;
+        parent[source] = -1;
+
+        boolean found = source == destination;
+        while (head < tail && !found) {
+            int current = queue[head++];
+            for (int i = offsets[current], end = offsets[current] + degrees[current]; i < end; i++) {
+                int next = targets[i];
+                if (mark[next] != epoch) {
+                    mark[next] = epoch;
+                    parent[next] = current;
+                    queue[tail++] = next;
+                    if (next == destination) {
+                        found = true;
+                        break;
+                    }
+                }
+            }
+        }
+        if (!found) return 0;
+
+        int[] path = ws.path = GraphWorkspace.ensure(ws.path, tail);
+        int length = 0;
+        for (int at = destination; at != -1; at = parent[at]) {
+            path[length++] = at;
+        }
+        reverse(path, length);
+        return length;
+    }
+
+    /*
+     * Hierholzer 알고리즘으로 오일러 회로를 찾는다. 그래프가 오일러 회로를 가진다고 가정한다.
+     * 원본을 바꾸지 않도록 인접 구조를 스레드별 작업 배열에 복사해 그 위에서 간선을 지워 나가며,
+     * 회로는 역순으로 쌓은 뒤 마지막에 한 번 뒤집는다.
+     */
+    public EulerCircuit findEulerCircuit(int startVertex) {
+        if (startVertex < 0 || startVertex >= vertexCount) {
+            throw new IllegalArgumentException("Invalid start vertex");
+        }
+
+        GraphWorkspace ws = GraphWorkspace.get();
+        int[] t = ws.targets = GraphWorkspace.ensure(ws.targets, used);
+        int[] w = ws.weights = GraphWorkspace.ensure(ws.weights, used);
+        int[] m = ws.mates = GraphWorkspace.ensure(ws.mates, used);
+        int[] deg = ws.degrees = GraphWorkspace.ensure(ws.degrees, vertexCount);
+        System.arraycopy(targets, 0, t, 0, used);
+        System.arraycopy(weights, 0, w, 0, used);
+        System.arraycopy(mates, 0, m, 0, used);
+        System.arraycopy(degrees, 0, deg, 0, vertexCount);
+
+        int[] stack = ws.stack = GraphWorkspace.ensure(ws.stack, edgeCount + 1);
+        int[] pending = ws.pending = GraphWorkspace.ensure(ws.pending, edgeCount + 1);
+        int[] circuit = ws.circuit = GraphWorkspace.ensure(ws.circuit, edgeCount + 1);
+        int[] circuitWeights = ws.circuitWeights = GraphWorkspace.ensure(ws.circuitWeights, edgeCount + 1);
+        int top = 0;
+        int pendingTop = 0;
+        int circuitSize = 0;
+        int weightSize = 0;
+
+        stack[top++] = startVertex;
+        while (top > 0) {
+            int v = stack[top - 1];
+            if (deg[v] > 0) {
+                int s = offsets[v] + deg[v] - 1;
+                int next = t[s];
+                pending[pendingTop++] = w[s];
+                // 상대 칸을 지우고(끝 칸으로 메움), v의 마지막 칸은 차수만 줄인다.
+                int mate = m[s];
+                int last = offsets[next] + --deg[next];
+                if (mate != last) {
+                    t[mate] = t[last];
+                    w[mate] = w[last];
+                    m[mate] = m[last];
+                    m[m[mate]] = mate;
+                }
+                deg[v]--;
+                stack[top++] = next;
+            } else {
+                circuit[circuitSize++] = v;
+                top--;
+                if (pendingTop > 0) {
+                    circuitWeights[weightSize++] = pending[--pendingTop];
+                }
+            }
+        }
+
+        int[] vertices = new int[circuitSize];
+        for (int i = 0; i < circuitSize; i++) {
+            vertices[i] = circuit[circuitSize - 1 - i];
+        }
+        // 모자란 가중치는 0으로 채운다.
+        int[] edgeWeights = new int[Math.max(circuitSize - 1, weightSize)];
+        for (int i = 0; i < weightSize; i++) {
+            edgeWeights[i] = circuitWeights[weightSize - 1 - i];
+        }
+        return new EulerCircuit(vertices, edgeWeights);
+    }
+
+    /*
+     * 같은 금액이 한 정점을 그대로 거쳐 가는 송금(i -w-> d -w-> d2)을 i -w-> d2로 합친다.
+     * 정점 d마다 (d 기준 가중치 -> 이웃) 색인을 만들어 w와 -w 짝을 한 번의 훑기로 모두 찾고,
+     * 합친 간선의 양 끝에는 새 짝이 생길 수 있으므로 작업 목록에 다시 넣는다.
+     */
+    public void integrateSameWeight() {
+        GraphWorkspace ws = GraphWorkspace.get();
+        int[] queue = ws.worklist = GraphWorkspace.ensure(ws.worklist, vertexCount);
+        int queued = ws.nextEpoch(vertexCount);
+        int[] mark = ws.mark;
+        int head = 0;
+        int count = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            if (degrees[v] >= 2) {
+                queue[count++] = v;
+                mark[v] = queued;
+            }
+        }
+
+        while (count > 0) {
+            int d = queue[head];
+            head = head + 1 == vertexCount ? 0 : head + 1;
+            count--;
+            mark[d] = 0;
+
+            int found = matchPassThrough(d, ws);
+            int[] pairs = ws.pairs;
+            for (int j = 0; j < found; j++) {
+                int i = pairs[3 * j];
+                int d2 = pairs[3 * j + 1];
+                removeEdge(d, i);
+                removeEdge(d, d2);
+                plusWeight(i, d2, pairs[3 * j + 2]);
+                for (int e = 0; e < 2; e++) {
+                    int v = e == 0 ? i : d2;
+                    if (mark[v] != queued && degrees[v] >= 2) {
+                        int tail = head + count;
+                        queue[tail >= vertexCount ? tail - vertexCount : tail] = v;
+                        count++;
+                        mark[v] = queued;
+                    }
+                }
+            }
+        }
+    }
+
+    // d를 그대로 거쳐 가는 (i, d2, w) 짝을 ws.pairs에 담고 짝 수를 돌려준다. (d 기준 i: -w, d2: w)
+    private int matchPassThrough(int d, GraphWorkspace ws) {
+        int k = degrees[d];
+        int capacity = 4;
+        while (capacity < 2 * k) {
+            capacity <<= 1;
+        }
+        int stamp = ws.nextIndexStamp(capacity);
+        int[] stamps = ws.indexStamps;
+        int[] keys = ws.indexKeys;
+        int[] heads = ws.indexHeads;
+        int[] nodeNeighbor = ws.nodeNeighbor = GraphWorkspace.ensure(ws.nodeNeighbor, k);
+        int[] nodeNext = ws.nodeNext = GraphWorkspace.ensure(ws.nodeNext, k);
+        int[] pairs = ws.pairs = GraphWorkspace.ensure(ws.pairs, 3 * (k / 2));
+        int mask = capacity - 1;
+        int nodes = 0;
+        int found = 0;
+
+        for (int s = offsets[d], end = offsets[d] + k; s < end; s++) {
+            int w = weights[s];
+            if (w == 0) continue;
+
+            int c = indexSlot(-w, stamps, keys, stamp, mask);
+            if (stamps[c] == stamp && heads[c] != -1) {
+                int node = heads[c];
+                heads[c] = nodeNext[node];
+                pairs[3 * found] = nodeNeighbor[node];
+                pairs[3 * found + 1] = targets[s];
+                pairs[3 * found + 2] = w;
+                found++;
+                continue;
+            }
+
+            c = indexSlot(w, stamps, keys, stamp, mask);
+            if (stamps[c] != stamp) {
+                stamps[c] = stamp;
+                keys[c] = w;
+                heads[c] = -1;
+            }
+            nodeNeighbor[nodes] = targets[s];
+            nodeNext[nodes] = heads[c];
+            heads[c] = nodes++;
+        }
+        return found;
+    }
+
+    // 이번 색인(stamp)에서 key가 있는 칸, 없으면 들어갈 빈 칸
+    private static int indexSlot(int key, int[] stamps, int[] keys, int stamp, int mask) {
+        int h = key * 0x9E3779B9;
+        int c = (h ^ (h >>> 16)) & mask;
+        while (stamps[c] == stamp && keys[c] != key) {
+            c = (c + 1) & mask;
+        }
+        return c;
+    }
+
+    private static void reverse(int[] a, int length) {
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+        }
+    }
+
+    private void checkVertex(int source, int destination) {
+        if (source < 0 || source >= vertexCount ||
+                destination < 0 || destination >= vertexCount) {
+            throw new IllegalArgumentException("Invalid vertex index");
+        }
+    }
+
+    // source 구간에서 destination을 가리키는 칸. 차수가 작은 쪽을 훑는다.
+    private int slot(int source, int destination) {
+        if (degrees[source] <= degrees[destination]) {
+            for (int i = offsets[source], end = offsets[source] + degrees[source]; i < end; i++) {
+                if (targets[i] == destination) return i;
+            }
+        } else {
+            for (int i = offsets[destination], end = offsets[destination] + degrees[destination]; i < end; i++) {
+                if (targets[i] == source) return mates[i];
+            }
+        }
+        return -1;
+    }
+
+    private void setWeight(int s, int weight) {
+        weights[s] = weight;
+        weights[mates[s]] = -weight;
+    }
+
+    private void append(int source, int destination, int weight) {
+        int s = reserve(source);
+        int d = reserve(destination);
+        targets[s] = destination;
+        weights[s] = weight;
+        mates[s] = d;
+        targets[d] = source;
+        weights[d] = -weight;
+        mates[d] = s;
+        edgeCount++;
+    }
+
+    // v 구간 끝에 빈 칸을 하나 확보하여 그 위치를 반환한다.
+    private int reserve(int v) {
+        if (degrees[v] == capacities[v]) {
+            int from = offsets[v];
+            int newCapacity = Math.max(INITIAL_SLOT, capacities[v] * 2);
+            if (from + capacities[v] == used && capacities[v] > 0) {
+                // 구간이 이미 배열 끝에 있으면 그대로 늘린다.
+                ensureSlots(from + newCapacity);
+            } else {
+                int to = used;
+                ensureSlots(to + newCapacity);
+                for (int i = 0; i < degrees[v]; i++) {
+                    targets[to + i] = targets[from + i];
+                    weights[to + i] = weights[from + i];
+                    mates[to + i] = mates[from + i];
+                    mates[mates[to + i]] = to + i;
+                }
+                offsets[v] = to;
+            }
+            capacities[v] = newCapacity;
+            used = offsets[v] + newCapacity;
+        }
+        return offsets[v] + degrees[v]++;
+    }
+
+    private void ensureSlots(int size) {
+        if (size > targets.length) {
+            int newLength = Math.max(size, targets.length + (targets.length >> 1));
+            targets = Arrays.copyOf(targets, newLength);
+            weights = Arrays.copyOf(weights, newLength);
+            mates = Arrays.copyOf(mates, newLength);
+        }
+    }
+
+    // v 구간의 s칸을 마지막 칸으로 덮어 지운다.
+    private void removeSlot(int v, int s) {
+        int last = offsets[v] + --degrees[v];
+        if (s != last) {
+            targets[s] = targets[last];
+            weights[s] = weights[last];
+            mates[s] = mates[last];
+            mates[mates[s]] = s;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.util.Arrays;
+
+/*
+ * 돌고 도는 송금(A -> B -> C -> A)을 상쇄하는 전처리.
+ * 순환 위 간선에서 가장 작은 금액만큼 모두 빼면 잔액은 그대로이고 간선이 하나 이상 사라진다.
+ *  1. Tarjan으로 강한 연결 요소(SCC)를 구한다. 순환은 한 SCC 안에만 있으므로 나머지 간선은 보지 않는다.
+ *  2. 크기 2 이상인 SCC 안의 간선만 원시 배열로 모아 DFS로 순환을 찾고 상쇄한다.
+ *     상쇄는 금액을 줄이기만 하므로 한 번 다 돌아본 정점은 다시 순환에 들지 않는다.
+ * 간선 방향은 u가 v에게 줄 돈(가중치 > 0)이 있을 때 u -> v 이다.
+ */
+public final class CycleCanceller {
+    private static final byte WHITE = 0;
+    private static final byte GRAY = 1;
+    private static final byte BLACK = 2;
+
+    private CycleCanceller() {
+    }
+
+    // g의 순환을 모두 상쇄하고 지운 간선 수를 돌려준다.
+    public static int cancel(Graph g) {
+        CsrGraph csr = g.csr();
+        int n = csr.vertexCount();
+        int[] componentOf = new int[n];
+        int[] componentSize = new int[n];
+        stronglyConnectedComponents(csr, componentOf, componentSize);
+
+        // 같은 SCC 안의 간선만 정점별로 모은다.
+        int[] start = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            start[v + 1] = start[v];
+            if (componentSize[componentOf[v]] < 2) continue;
+            for (int k = 0; k < csr.degree(v); k++) {
+                if (csr.weightAt(v, k) > 0 && componentOf[csr.target(v, k)] == componentOf[v]) {
+                    start[v + 1]++;
+                }
+            }
+        }
+        int m = start[n];
+        if (m == 0) return 0;
+
+        int[] target = new int[m];
+        int[] weight = new int[m];
+        int[] original = new int[m];
+        for (int v = 0, e = 0; v < n; v++) {
+            if (componentSize[componentOf[v]] < 2) continue;
+            for (int k = 0; k < csr.degree(v); k++) {
+                int w = csr.weightAt(v, k);
+                if (w > 0 && componentOf[csr.target(v, k)] == componentOf[v]) {
+                    target[e] = csr.target(v, k);
+                    weight[e] = w;
+                    original[e++] = w;
+                }
+            }
+        }
+
+        cancelCycles(n, start, target, weight);
+
+        int removed = 0;
+        for (int v = 0; v < n; v++) {
+            for (int e = start[v]; e < start[v + 1]; e++) {
+                if (weight[e] != original[e]) {
+                    csr.plusWeight(v, target[e], weight[e] - original[e]);
+                    if (weight[e] == 0) removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /*
+     * 반복형 Tarjan. componentOf[v]는 v의 SCC 번호, componentSize[c]는 c번 SCC의 정점 수.
+     */
+    static void stronglyConnectedComponents(CsrGraph csr, int[] componentOf, int[] componentSize) {
+        int n = csr.vertexCount();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] cursor = new int[n];
+        int[] callStack = new int[n];
+        int[] stack = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+        int counter = 0;
+        int components = 0;
+        int sp = 0;
+
+        for (int s = 0; s < n; s++) {
+            if (index[s] != -1) continue;
+
+            int top = 0;
+            callStack[0] = s;
+            index[s] = low[s] = counter++;
+            stack[sp++] = s;
+            onStack[s] = true;
+            while (top >= 0) {
+                int v = callStack[top];
+                if (cursor[v] < csr.degree(v)) {
+                    int k = cursor[v]++;
+                    if (csr.weightAt(v, k) <= 0) continue;
+                    int u = csr.target(v, k);
+                    if (index[u] == -1) {
+                        index[u] = low[u] = counter++;
+                        stack[sp++] = u;
+                        onStack[u] = true;
+                        callStack[++top] = u;
+                    } else if (onStack[u]) {
+                        low[v] = Math.min(low[v], index[u]);
+                    }
+                    continue;
+                }
+
+                if (low[v] == index[v]) {
+                    int u;
+                    do {
+                        u = stack[--sp];
+                        onStack[u] = false;
+                        componentOf[u] = components;
+                        componentSize[components]++;
+                    } while (u != v);
+                    components++;
+                }
+                if (--top >= 0) {
+                    int parent = callStack[top];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+    }
+
+    /*
+     * DFS 경로(path)를 따라가다 경로 위 정점(GRAY)으로 돌아오면 그 순환을 상쇄한다.
+     * 상쇄 후에는 처음으로 0이 된 간선의 출발 정점까지만 경로를 남기고, 그 위 정점은 WHITE로 되돌린다.
+     * 각 정점의 cursor는 0이 된 간선과 BLACK으로 가는 간선만 넘기므로 되돌아와도 그대로 쓸 수 있다.
+     */
+    private static void cancelCycles(int n, int[] start, int[] target, int[] weight) {
+        byte[] color = new byte[n];
+        int[] cursor = new int[n];
+        int[] level = new int[n];
+        int[] path = new int[n];
+        int[] via = new int[n];
+        System.arraycopy(start, 0, cursor, 0, n);
+
+        for (int r = 0; r < n; r++) {
+            if (color[r] != WHITE || start[r] == start[r + 1]) continue;
+
+            path[0] = r;
+            level[r] = 0;
+            color[r] = GRAY;
+            int depth = 1;
+            while (depth > 0) {
+                int u = path[depth - 1];
+                int end = start[u + 1];
+                while (cursor[u] < end && (weight[cursor[u]] == 0 || color[target[cursor[u]]] == BLACK)) {
+                    cursor[u]++;
+                }
+                if (cursor[u] == end) {
+                    color[u] = BLACK;
+                    depth--;
+                    continue;
+                }
+
+                int e = cursor[u];
+                int v = target[e];
+                via[depth - 1] = e;
+                if (color[v] == WHITE) {
+                    color[v] = GRAY;
+                    level[v] = depth;
+                    path[depth++] = v;
+                    continue;
+                }
+
+                // v는 경로 위에 있다: path[level[v]] -> ... -> u -> v
+                int min = Integer.MAX_VALUE;
+                for (int i = level[v]; i < depth; i++) {
+                    min = Math.min(min, weight[via[i]]);
+                }
+                int cut = -1;
+                for (int i = level[v]; i < depth; i++) {
+                    weight[via[i]] -= min;
+                    if (cut == -1 && weight[via[i]] == 0) cut = i;
+                }
+                for (int i = cut + 1; i < depth; i++) {
+                    color[path[i]] = WHITE;
+                }
+                depth = cut + 1;
+            }
+        }
+    }
+}
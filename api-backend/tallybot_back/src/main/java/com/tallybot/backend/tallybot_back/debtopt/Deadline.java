@@ -0,0 +1,28 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.time.Duration;
+
+// 최적화 제한 시간. System.nanoTime 기준이며 NONE은 끝나지 않는다.
+public final class Deadline {
+    public static final Deadline NONE = new Deadline(0, false);
+
+    private final long at;
+    private final boolean bounded;
+
+    private Deadline(long at, boolean bounded) {
+        this.at = at;
+        this.bounded = bounded;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos(), true);
+    }
+
+    public boolean expired() {
+        return bounded && System.nanoTime() - at >= 0;
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+}
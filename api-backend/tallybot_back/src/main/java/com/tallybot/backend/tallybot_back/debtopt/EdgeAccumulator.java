@@ -0,0 +1,127 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+/*
+ * 송금 간선을 하나씩 받아 쌓아 두었다가, 최적화한 결과를 EdgeConsumer로 하나씩 내보낸다.
+ * 두 정점 사이의 금액은 (작은 번호 << 32 | 큰 번호) long 키 하나에 부호 있는 long으로 쌓는다.
+ *  - 금액 > 0: 작은 번호가 큰 번호에게 줄 돈, < 0: 반대 방향
+ *  - 반대 방향 간선은 쌓으면서 바로 상계되고, 자기 자신으로 가는 간선은 버린다.
+ * 결과를 목록으로 만들지 않으므로 호출하는 쪽은 받는 대로 저장하거나 버릴 수 있다.
+ */
+public final class EdgeAccumulator {
+    private long[] keys = new long[16];
+    private long[] amounts = new long[16];
+    // 선형 탐사 해시 테이블: keys 위치 + 1 (0은 빈 칸)
+    private int[] slots = new int[32];
+    private int size;
+    private int vertexCount;
+
+    // source가 destination에게 amount를 더 줘야 한다.
+    public void add(int source, int destination, long amount) {
+        if (source < 0 || destination < 0) {
+            throw new IllegalArgumentException("Invalid vertex: " + source + " -> " + destination);
+        }
+        vertexCount = Math.max(vertexCount, Math.max(source, destination) + 1);
+        if (source == destination || amount == 0) return;
+
+        int lo = Math.min(source, destination);
+        int hi = Math.max(source, destination);
+        int p = indexOf((long) lo << 32 | hi);
+        amounts[p] += source == lo ? amount : -amount;
+    }
+
+    // 지금까지 본 가장 큰 정점 번호 + 1
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    // 상계 후 0이 아닌 간선을 (주는 쪽, 받는 쪽, 금액 > 0)으로 처음 쌓인 순서대로 방문한다.
+    public void forEachEdge(EdgeConsumer consumer) {
+        for (int p = 0; p < size; p++) {
+            long amount = amounts[p];
+            int lo = (int) (keys[p] >>> 32);
+            int hi = (int) keys[p];
+            if (amount > 0) {
+                consumer.accept(lo, hi, narrow(amount));
+            } else if (amount < 0) {
+                consumer.accept(hi, lo, narrow(-amount));
+            }
+        }
+    }
+
+    // 정점별 (받을 돈 - 줄 돈)
+    public long[] balances() {
+        long[] balances = new long[vertexCount];
+        for (int p = 0; p < size; p++) {
+            int lo = (int) (keys[p] >>> 32);
+            int hi = (int) keys[p];
+            balances[lo] -= amounts[p];
+            balances[hi] += amounts[p];
+        }
+        return balances;
+    }
+
+    public Graph toGraph() {
+        Graph g = new Graph(vertexCount);
+        forEachEdge(g::addEdge);
+        return g;
+    }
+
+    /*
+     * 쌓인 간선으로 그래프를 만들어 optimizer로 줄이고, 결과 간선을 sink로 내보낸다.
+     * 최적화 결과가 원래보다 간선이 적지 않으면 원래 간선을 그대로 내보낸다.
+     * 반환값은 내보낸 간선 수
+     */
+    public int optimize(UnaryOperator<Graph> optimizer, EdgeConsumer sink) {
+        Graph graph = toGraph();
+        Graph optimized = optimizer.apply(graph);
+        Graph res = optimized.getEdgeCount() < graph.getEdgeCount() ? optimized : graph;
+        res.forEachEdge(sink);
+        return res.getEdgeCount();
+    }
+
+    private int indexOf(long key) {
+        int mask = slots.length - 1;
+        long h = key * 0x9E3779B97F4A7C15L;
+        int s = (int) (h ^ (h >>> 32)) & mask;
+        while (slots[s] != 0) {
+            if (keys[slots[s] - 1] == key) {
+                return slots[s] - 1;
+            }
+            s = (s + 1) & mask;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            amounts = Arrays.copyOf(amounts, size * 2);
+        }
+        keys[size] = key;
+        slots[s] = ++size;
+        if (size * 2 > slots.length) {
+            grow();
+        }
+        return size - 1;
+    }
+
+    private void grow() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int p = 0; p < size; p++) {
+            long h = keys[p] * 0x9E3779B97F4A7C15L;
+            int s = (int) (h ^ (h >>> 32)) & mask;
+            while (slots[s] != 0) {
+                s = (s + 1) & mask;
+            }
+            slots[s] = p + 1;
+        }
+    }
+
+    private static int narrow(long amount) {
+        if (amount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("송금 금액이 너무 큽니다: " + amount);
+        }
+        return (int) amount;
+    }
+}
@@ -0,0 +1,6 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+@FunctionalInterface
+public interface EdgeConsumer {
+    void accept(int source, int destination, int weight);
+}
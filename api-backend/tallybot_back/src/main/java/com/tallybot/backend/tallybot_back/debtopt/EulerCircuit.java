@@ -0,0 +1,9 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+/*
+ * 오일러 회로 결과.
+ * vertices: 회로를 따라 방문한 정점 (시작 정점으로 끝남)
+ * weights: weights[i]는 vertices[i] -> vertices[i + 1] 간선의 가중치 (길이 vertices.length - 1)
+ */
+public record EulerCircuit(int[] vertices, int[] weights) {
+}
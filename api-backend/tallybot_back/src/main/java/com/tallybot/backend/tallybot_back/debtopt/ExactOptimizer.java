@@ -0,0 +1,250 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+/*
+ * 송금 횟수 최소화 정확해 탐색기.
+ * 잔액이 0이 아닌 사람이 n명이고, 합이 0인 부분집합으로 최대 k개까지 나눌 수 있으면
+ * 최소 송금 횟수는 n - k 이다.
+ *  - n <= DP_LIMIT : 부분집합 비트마스크 DP로 k를 구한다.
+ *  - n <= cutoff   : 분기 한정(branch and bound) 탐색. 탐색 한도를 넘으면 휴리스틱으로 돌아간다.
+ *  - 그 외         : 기존 Graph.summarize 휴리스틱
+ */
+public final class ExactOptimizer {
+    public static final int DEFAULT_CUTOFF = 24;
+    static final int DP_LIMIT = 20;
+    // 분기 한정 탐색에서 방문할 최대 노드 수
+    static final long NODE_BUDGET = 2_000_000L;
+
+    private ExactOptimizer() {
+    }
+
+    public static Graph summarize(Graph g) {
+        return summarize(g, DEFAULT_CUTOFF);
+    }
+
+    public static Graph summarize(Graph g, int cutoff) {
+        return summarize(g, cutoff, Graph::summarize);
+    }
+
+    // heuristic: cutoff를 넘거나 탐색 한도를 넘었을 때 쓸 휴리스틱 (예: ParallelSummarizer::summarize)
+    public static Graph summarize(Graph g, int cutoff, UnaryOperator<Graph> heuristic) {
+        int[] balances = g.csr().balances();
+        int n = 0;
+        for (int b : balances) {
+            if (b != 0) n++;
+        }
+        if (n > cutoff) {
+            return heuristic.apply(g);
+        }
+
+        // 잔액이 0이 아닌 정점만 압축
+        int[] vertices = new int[n];
+        long[] amounts = new long[n];
+        for (int v = 0, i = 0; v < balances.length; v++) {
+            if (balances[v] != 0) {
+                vertices[i] = v;
+                amounts[i++] = balances[v];
+            }
+        }
+
+        Graph res = new Graph(g.getVertexCount());
+        if (n <= DP_LIMIT) {
+            int[] order = zeroSumOrder(amounts);
+            settleInOrder(res, vertices, amounts, order);
+            return res;
+        }
+
+        BranchAndBound bnb = new BranchAndBound(amounts);
+        boolean complete = bnb.search();
+        for (int t = 0; t < bnb.bestCount; t++) {
+            res.addEdge(vertices[bnb.bestFrom[t]], vertices[bnb.bestTo[t]], (int) bnb.bestAmount[t]);
+        }
+        if (!complete) {
+            // 한도 안에 증명하지 못했으면 휴리스틱 결과와 비교해 적은 쪽을 쓴다.
+            Graph fallback = heuristic.apply(g);
+            if (bnb.bestCount == 0 || fallback.getEdgeCount() < res.getEdgeCount()) {
+                return fallback;
+            }
+        }
+        return res;
+    }
+
+    /*
+     * dp[mask] = mask를 합이 0인 부분집합으로 나눌 때의 최대 개수(마지막 조각은 합이 0이 아닐 수 있음).
+     * 역추적한 순서를 앞에서부터 누적했을 때 합이 0이 되는 지점이 부분집합의 경계가 된다.
+     */
+    static int[] zeroSumOrder(long[] amounts) {
+        int n = amounts.length;
+        int full = (1 << n) - 1;
+        long[] sum = new long[1 << n];
+        byte[] dp = new byte[1 << n];
+
+        for (int mask = 1; mask <= full; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            sum[mask] = sum[mask & (mask - 1)] + amounts[low];
+
+            int best = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = rest & -rest;
+                if (dp[mask ^ bit] > best) best = dp[mask ^ bit];
+            }
+            dp[mask] = (byte) (best + (sum[mask] == 0 ? 1 : 0));
+        }
+
+        int[] order = new int[n];
+        int mask = full;
+        for (int pos = n - 1; pos >= 0; pos--) {
+            int target = dp[mask] - (sum[mask] == 0 ? 1 : 0);
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = rest & -rest;
+                if (dp[mask ^ bit] == target) {
+                    order[pos] = Integer.numberOfTrailingZeros(bit);
+                    mask ^= bit;
+                    break;
+                }
+            }
+        }
+        return order;
+    }
+
+    // order를 합이 0인 구간으로 자르고, 구간마다 채무자/채권자를 차례로 맞춰 (구간 크기 - 1)번 이하로 송금한다.
+    static void settleInOrder(Graph res, int[] vertices, long[] amounts, int[] order) {
+        int start = 0;
+        long running = 0;
+        for (int pos = 0; pos < order.length; pos++) {
+            running += amounts[order[pos]];
+            if (running == 0) {
+                settleGroup(res, vertices, amounts, order, start, pos + 1);
+                start = pos + 1;
+            }
+        }
+    }
+
+    private static void settleGroup(Graph res, int[] vertices, long[] amounts, int[] order, int from, int to) {
+        long[] left = new long[to - from];
+        int[] idx = new int[to - from];
+        for (int i = from; i < to; i++) {
+            idx[i - from] = order[i];
+            left[i - from] = amounts[order[i]];
+        }
+
+        int debtor = 0;
+        int creditor = 0;
+        while (true) {
+            while (debtor < left.length && left[debtor] >= 0) debtor++;
+            while (creditor < left.length && left[creditor] <= 0) creditor++;
+            if (debtor == left.length || creditor == left.length) break;
+
+            long amount = Math.min(-left[debtor], left[creditor]);
+            res.addEdge(vertices[idx[debtor]], vertices[idx[creditor]], (int) amount);
+            left[debtor] += amount;
+            left[creditor] -= amount;
+        }
+    }
+
+    /*
+     * 한 사람의 잔액 전체를 반대 부호의 다른 사람에게 넘기는 방식으로 탐색한다.
+     * 현재 송금 수 + 남은 인원의 하한(ceil(m / 2))이 지금까지의 최선 이상이면 가지를 친다.
+     */
+    static final class BranchAndBound {
+        private final long[] debt;
+        private final int n;
+        private final int[] from;
+        private final int[] to;
+        private final long[] amount;
+        private final Deadline deadline;
+        int[] bestFrom;
+        int[] bestTo;
+        long[] bestAmount;
+        int bestCount;
+        private long nodes;
+
+        BranchAndBound(long[] amounts) {
+            this(amounts, Deadline.NONE);
+        }
+
+        BranchAndBound(long[] amounts, Deadline deadline) {
+            this.deadline = deadline;
+            n = amounts.length;
+            debt = Arrays.copyOf(amounts, n);
+            from = new int[n];
+            to = new int[n];
+            amount = new long[n];
+            bestFrom = new int[n];
+            bestTo = new int[n];
+            bestAmount = new long[n];
+            bestCount = n;
+        }
+
+        // 탐색 한도(노드 수, 제한 시간) 안에서 끝났으면(최적이 증명되었으면) true. 못 찾았으면 bestCount는 0
+        boolean search() {
+            dfs(0, 0);
+            if (bestCount == n) {
+                bestCount = 0;
+                return false;
+            }
+            return nodes <= NODE_BUDGET;
+        }
+
+        private void dfs(int start, int count) {
+            if (++nodes > NODE_BUDGET) return;
+            // 시간 확인은 노드 4096개마다
+            if ((nodes & 0xFFF) == 0 && deadline.expired()) {
+                nodes = NODE_BUDGET + 1;
+                return;
+            }
+            while (start < n && debt[start] == 0) start++;
+            if (start == n) {
+                if (count < bestCount) {
+                    bestCount = count;
+                    System.arraycopy(from, 0, bestFrom, 0, count);
+                    System.arraycopy(to, 0, bestTo, 0, count);
+                    System.arraycopy(amount, 0, bestAmount, 0, count);
+                }
+                return;
+            }
+
+            int remaining = 0;
+            for (int i = start; i < n; i++) {
+                if (debt[i] != 0) remaining++;
+            }
+            if (count + (remaining + 1) / 2 >= bestCount) return;
+
+            long d = debt[start];
+            for (int i = start + 1; i < n; i++) {
+                if (debt[i] == 0 || (debt[i] > 0) == (d > 0)) continue;
+
+                // 같은 잔액은 한 번만 시도
+                boolean tried = false;
+                for (int j = start + 1; j < i; j++) {
+                    if (debt[j] == debt[i]) {
+                        tried = true;
+                        break;
+                    }
+                }
+                if (tried) continue;
+
+                if (d < 0) {
+                    from[count] = start;
+                    to[count] = i;
+                    amount[count] = -d;
+                } else {
+                    from[count] = i;
+                    to[count] = start;
+                    amount[count] = d;
+                }
+                debt[i] += d;
+                debt[start] = 0;
+                dfs(start + 1, count + 1);
+                debt[start] = d;
+                debt[i] -= d;
+
+                // 정확히 상쇄되는 상대가 있으면 그보다 나은 선택은 없다.
+                if (debt[i] + d == 0) break;
+                if (nodes > NODE_BUDGET) return;
+            }
+        }
+    }
+}
@@ -1,62 +1,201 @@
 package com.tallybot.backend.tallybot_back.debtopt;
 
-import org.springframework.data.util.Pair;
-
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.ArrayList;
+import java.util.List;
 
+/*
+ * 오일러 회로의 한 구간을 나타내는 뷰.
+ * 정점/가중치/다음 위치 배열(Ring)은 회로 하나당 한 번만 만들고, 잘린 조각은 시작 위치, 정점 수, 가중치 오프셋만 가진다.
+ *  - 실제 가중치 = 저장된 가중치 - offset (조각마다 빼는 값은 오프셋에만 더해 둔다)
+ *  - 빈도표는 저장된 가중치 기준이라 오프셋이 바뀌어도 다시 셀 필요가 없다.
+ * 경로 형태에서 정점은 size()개, 간선은 size() - 1개이고, 마지막 위치의 가중치 칸은 회로를 닫을 때 쓴다.
+ */
 public final class FlattedGraph {
-    Pair<InfiniteIterator<WeightStrategy>, ThreeTuple<List<Integer>, Map<Integer, Integer>, List<Integer>>> p;
+    private final Ring ring;
+    private final int head;
+    private final int size;
+    private final int offset;
+    private final WeightHistogram histogram;
+    private InfiniteIterator<WeightStrategy> weightStrategies;
 
-    public FlattedGraph(InfiniteIterator<WeightStrategy> ws, ThreeTuple<List<Integer>, Map<Integer, Integer>, List<Integer>> t) {
-        p = Pair.of(ws, t);
-    }
+    // close() 뒤에만 유효: 닫힌 회로 순서의 위치 (closedSize + 1개, 마지막은 처음과 같은 정점)
+    private int[] order;
+    private int closedSize = -1;
 
-    public FlattedGraph(InfiniteIterator<WeightStrategy> ws, List<Integer> circuit, Map<Integer, Integer> weightFrequency, List<Integer> weights) {
-        this(
-                ws, new ThreeTuple<>(circuit, weightFrequency, weights)
-        );
+    public FlattedGraph(InfiniteIterator<WeightStrategy> ws, EulerCircuit c) {
+        int n = c.vertices().length;
+        int[] weights = new int[n];
+        int[] next = new int[n];
+        WeightHistogram histogram = new WeightHistogram(n);
+        for (int i = 0; i < n - 1; i++) {
+            weights[i] = c.weights()[i];
+            next[i] = i + 1;
+            histogram.add(weights[i], 1);
+        }
+        this.ring = new Ring(c.vertices(), weights, next);
+        this.head = 0;
+        this.size = n;
+        this.offset = 0;
+        this.histogram = histogram;
+        this.weightStrategies = ws;
     }
 
-    public FlattedGraph(FlattedGraph f) {
-        this(f.p.getFirst(), new ArrayList<>(f.p.getSecond().first()), new HashMap<>(f.p.getSecond().second()), new ArrayList<>(f.p.getSecond().third()));
+    private FlattedGraph(Ring ring, int head, int size, int offset, WeightHistogram histogram,
+                         InfiniteIterator<WeightStrategy> ws) {
+        this.ring = ring;
+        this.head = head;
+        this.size = size;
+        this.offset = offset;
+        this.histogram = histogram;
+        this.weightStrategies = ws;
     }
 
     public InfiniteIterator<WeightStrategy> getWeightStrategies() {
-        return p.getFirst();
+        return weightStrategies;
     }
 
     public void setWeightStrategies(InfiniteIterator<WeightStrategy> ws) {
-        p = Pair.of(ws, p.getSecond());
+        weightStrategies = ws;
     }
 
-    public List<Integer> getCircuit() {
-        return p.getSecond().first();
+    // 경로 형태의 정점 수
+    public int size() {
+        return size;
     }
 
-    public void setChangeable(List<Integer> circuit) {
-        p = Pair.of(p.getFirst(), new ThreeTuple<>(circuit, p.getSecond().second(), p.getSecond().third()));
+    // 닫힌 회로의 간선 수 (WeightStrategy용)
+    public int weightCount() {
+        checkClosed();
+        return closedSize;
     }
 
-    public Map<Integer, Integer> getWeightFrequency() {
-        return p.getSecond().second();
+    // 닫힌 회로의 i번째 간선 가중치 (WeightStrategy용)
+    public int weightAt(int i) {
+        checkClosed();
+        return ring.weights[order[i]] - offset;
     }
 
-    public void setWeightFrequency(Map<Integer, Integer> weightFrequency) {
-        p = Pair.of(p.getFirst(), new ThreeTuple<>(p.getSecond().first(), weightFrequency, p.getSecond().third()));
+    // 닫힌 회로에서 가중치 weight인 간선 수 (WeightStrategy용)
+    public int frequency(int weight) {
+        return histogram.count(weight + offset);
+    }
+
+    // 개수가 1 이상인 (가중치, 개수)를 모두 방문한다.
+    public void forEachFrequency(WeightHistogram.Consumer consumer) {
+        histogram.forEach((stored, count) -> consumer.accept(stored - offset, count));
+    }
+
+    // 경로의 간선 (source -> destination, 가중치)을 순서대로 방문한다.
+    public void forEachEdge(EdgeConsumer consumer) {
+        int[] next = ring.next;
+        int p = head;
+        for (int i = 0; i < size - 1; i++) {
+            int q = next[p];
+            consumer.accept(ring.vertices[p], ring.vertices[q], ring.weights[p] - offset);
+            p = q;
+        }
+    }
+
+    /*
+     * 경로를 회로로 닫는다.
+     *  - 끝 정점이 처음과 다르면 마지막 위치에서 처음으로 가는 가중치 0 간선을 더한다.
+     *  - 같으면 이미 회로이므로, 마지막 위치를 처음 위치 대신 써서 회로를 한 바퀴 넘어 이어 갈 수 있게 한다.
+     * 회로 순서의 위치는 스레드별 작업 배열에 담으므로 cut까지 같은 스레드에서 바로 이어서 불러야 한다.
+     */
+    void close() {
+        int[] next = ring.next;
+        int[] weights = ring.weights;
+        GraphWorkspace ws = GraphWorkspace.get();
+        int[] order = ws.order = GraphWorkspace.ensure(ws.order, size + 1);
+
+        int p = head;
+        for (int i = 0; i < size - 1; i++) {
+            order[i] = p;
+            p = next[p];
+        }
+        order[size - 1] = p;
+
+        boolean wasClosed = closedSize >= 0;
+        if (ring.vertices[head] != ring.vertices[p]) {
+            weights[p] = offset;
+            next[p] = head;
+            closedSize = size;
+            order[size] = head;
+            if (!wasClosed) histogram.add(offset, 1);
+        } else {
+            weights[p] = weights[head];
+            next[p] = next[head];
+            closedSize = size - 1;
+        }
+        this.order = order;
+    }
+
+    /*
+     * 닫힌 회로에서 가중치가 weight인 간선을 모두 지우고, 그 사이 구간들을 weight만큼 뺀 조각으로 돌려준다.
+     * 조각 순서는 첫 번째 잘린 간선 뒤부터이며, 마지막 조각은 회로 끝을 넘어 처음으로 이어진다.
+     * 가장 긴 조각은 이 뷰의 빈도표를 물려받아 나머지 조각과 지운 간선만큼만 빼므로,
+     * 이 뷰는 cut 이후 다시 나눌 수 없다. (경로 순회는 조각을 처리하기 전까지 유효)
+     */
+    List<FlattedGraph> cut(int weight, InfiniteIterator<WeightStrategy> next) {
+        checkClosed();
+        int m = closedSize;
+        int stored = weight + offset;
+        int[] weights = ring.weights;
+
+        GraphWorkspace ws = GraphWorkspace.get();
+        int[] cuts = ws.cuts = GraphWorkspace.ensure(ws.cuts, m);
+        int k = 0;
+        for (int i = 0; i < m; i++) {
+            if (weights[order[i]] == stored) {
+                cuts[k++] = i;
+            }
+        }
+        if (k == 0) {
+            throw new IllegalArgumentException("No edge with weight " + weight);
+        }
+
+        // t번째 조각: 닫힌 회로 순서 cuts[t] + 1부터 length(t)개 정점 (마지막 조각은 m을 넘어 이어진다)
+        int largest = k - 1;
+        for (int t = 0; t < k - 1; t++) {
+            if (cuts[t + 1] - cuts[t] > pieceLength(cuts, k, m, largest)) {
+                largest = t;
+            }
+        }
+
+        WeightHistogram inherited = histogram;
+        inherited.add(stored, -k);
+        List<FlattedGraph> res = new ArrayList<>(k);
+        for (int t = 0; t < k; t++) {
+            int start = cuts[t] + 1;
+            int length = pieceLength(cuts, k, m, t);
+            WeightHistogram h;
+            if (t == largest) {
+                h = inherited;
+            } else {
+                h = new WeightHistogram(length);
+                for (int i = start; i < start + length - 1; i++) {
+                    int w = weights[order[i < m ? i : i - m]];
+                    h.add(w, 1);
+                    inherited.add(w, -1);
+                }
+            }
+            res.add(new FlattedGraph(ring, order[start], length, stored, h, next));
+        }
+        this.order = null;
+        return res;
     }
 
-    public List<Integer> getWeights() {
-        return p.getSecond().third();
+    private static int pieceLength(int[] cuts, int k, int m, int t) {
+        return t < k - 1 ? cuts[t + 1] - cuts[t] : m - cuts[k - 1] + cuts[0];
     }
 
-    public void setWeights(List<Integer> weights) {
-        p = Pair.of(p.getFirst(), new ThreeTuple<>(p.getSecond().first(), p.getSecond().second(), weights));
+    private void checkClosed() {
+        if (order == null) {
+            throw new IllegalStateException("FlattedGraph is not closed");
+        }
     }
 
-    public ThreeTuple<List<Integer>, Map<Integer, Integer>, List<Integer>> getSecond() {
-        return p.getSecond();
+    // 회로 하나의 정점, 그 위치에서 나가는 간선의 저장된 가중치, 회로상 다음 위치
+    private record Ring(int[] vertices, int[] weights, int[] next) {
     }
 }
@@ -0,0 +1,173 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Graph / OptimizationResult의 바이너리 형식. (toString/fromString은 디버깅용으로만 남긴다)
+ *  - 그래프: 버전(1바이트), 정점 수, 간선 수, 간선마다 (source 증가분, destination, 가중치)
+ *  - 정점 번호와 개수는 varint(7비트씩, 상위 비트가 1이면 다음 바이트가 이어짐), 가중치는 zig-zag 후 varint
+ *  - 간선은 forEachEdge 순서(source 오름차순)로 한 방향만 쓰므로 source는 앞 간선과의 차이만 둔다.
+ *  - 결과: 그래프 뒤에 엔진(OptimizerEngine.code 1바이트), 최적 증명 여부(1바이트)
+ * 읽기/쓰기는 ByteBuffer의 position부터 하고 읽은/쓴 만큼 position을 옮기므로,
+ * 여러 그래프를 이어 붙인 파일(코퍼스)을 메모리 매핑해 차례로 읽을 수 있다.
+ */
+public final class GraphCodec {
+    private static final byte VERSION = 1;
+
+    private GraphCodec() {
+    }
+
+    public static byte[] toBytes(Graph g) {
+        ByteBuffer buf = ByteBuffer.allocate(encodedSize(g));
+        write(g, buf);
+        return buf.array();
+    }
+
+    public static Graph fromBytes(byte[] bytes) {
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    // write가 쓸 바이트 수
+    public static int encodedSize(Graph g) {
+        int[] size = {1 + varintSize(g.getVertexCount()) + varintSize(g.getEdgeCount())};
+        int[] prev = {0};
+        g.forEachEdge((source, destination, weight) -> {
+            size[0] += varintSize(source - prev[0]) + varintSize(destination) + varintSize(zigZag(weight));
+            prev[0] = source;
+        });
+        return size[0];
+    }
+
+    public static void write(Graph g, ByteBuffer out) {
+        out.put(VERSION);
+        writeVarint(out, g.getVertexCount());
+        writeVarint(out, g.getEdgeCount());
+        int[] prev = {0};
+        g.forEachEdge((source, destination, weight) -> {
+            writeVarint(out, source - prev[0]);
+            writeVarint(out, destination);
+            writeVarint(out, zigZag(weight));
+            prev[0] = source;
+        });
+    }
+
+    public static Graph read(ByteBuffer in) {
+        try {
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("지원하지 않는 그래프 형식 버전: " + version);
+            }
+            int vertexCount = readVarint(in);
+            int edgeCount = readVarint(in);
+            Graph g = new Graph(vertexCount);
+            int source = 0;
+            for (int e = 0; e < edgeCount; e++) {
+                source += readVarint(in);
+                int destination = readVarint(in);
+                g.addEdge(source, destination, unZigZag(readVarint(in)));
+            }
+            return g;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("그래프 데이터가 중간에 끊겼습니다.", e);
+        }
+    }
+
+    public static int encodedSize(OptimizationResult r) {
+        return encodedSize(r.graph()) + 2;
+    }
+
+    public static void write(OptimizationResult r, ByteBuffer out) {
+        write(r.graph(), out);
+        out.put((byte) r.engine().code());
+        out.put((byte) (r.provenOptimal() ? 1 : 0));
+    }
+
+    public static OptimizationResult readResult(ByteBuffer in) {
+        Graph g = read(in);
+        try {
+            OptimizerEngine engine = OptimizerEngine.fromCode(in.get());
+            return new OptimizationResult(g, engine, in.get() != 0);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("최적화 결과 데이터가 중간에 끊겼습니다.", e);
+        }
+    }
+
+    // 그래프들을 이어 붙여 파일 하나에 쓴다. (기존 파일은 덮어쓴다)
+    public static void writeCorpus(Path path, Iterable<Graph> graphs) {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Graph g : graphs) {
+                ByteBuffer buf = ByteBuffer.allocate(encodedSize(g));
+                write(g, buf);
+                buf.flip();
+                while (buf.hasRemaining()) {
+                    ch.write(buf);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // writeCorpus로 쓴 파일을 메모리 매핑해 모든 그래프를 읽는다.
+    public static List<Graph> readCorpus(Path path) {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("코퍼스 파일이 너무 큽니다: " + ch.size());
+            }
+            ByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            List<Graph> graphs = new ArrayList<>();
+            while (in.hasRemaining()) {
+                graphs.add(read(in));
+            }
+            return graphs;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static int zigZag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    static int unZigZag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    static int varintSize(int v) {
+        int size = 1;
+        while ((v & ~0x7F) != 0) {
+            v >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static void writeVarint(ByteBuffer out, int v) {
+        while ((v & ~0x7F) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) v);
+    }
+
+    static int readVarint(ByteBuffer in) {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return v;
+            }
+        }
+        throw new IllegalArgumentException("varint가 너무 깁니다.");
+    }
+}
@@ -0,0 +1,85 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.util.Arrays;
+
+/*
+ * BFS, 오일러 회로, FlattedGraph 분할, 같은 금액 합치기 커널이 스레드마다 다시 쓰는 작업 배열.
+ * 필요한 크기보다 작을 때만 두 배로 늘리고, 방문 표시는 배열을 지우는 대신 epoch를 올려 초기화한다.
+ * 커널 하나가 끝나기 전에 같은 스레드에서 다른 커널을 부르지 않으므로 스레드당 하나면 충분하다.
+ */
+final class GraphWorkspace {
+    private static final ThreadLocal<GraphWorkspace> LOCAL = ThreadLocal.withInitial(GraphWorkspace::new);
+
+    // BFS: mark[v] == epoch 이면 방문함
+    int[] mark = new int[0];
+    int epoch;
+    int[] parent = new int[0];
+    int[] queue = new int[0];
+    // 마지막으로 찾은 최단 경로 (앞에서부터 pathLength개)
+    int[] path = new int[0];
+
+    // 오일러 회로: 간선을 지워 나갈 인접 구조 사본과 스택
+    int[] targets = new int[0];
+    int[] weights = new int[0];
+    int[] mates = new int[0];
+    int[] degrees = new int[0];
+    int[] stack = new int[0];
+    int[] pending = new int[0];
+    int[] circuit = new int[0];
+    int[] circuitWeights = new int[0];
+
+    // FlattedGraph: 닫힌 회로 순서의 위치와 잘린 위치
+    int[] order = new int[0];
+    int[] cuts = new int[0];
+
+    // integrateSameWeight: 작업 목록, 정점 하나의 (가중치 -> 이웃) 색인과 찾은 짝
+    int[] worklist = new int[0];
+    int[] indexKeys = new int[0];
+    int[] indexHeads = new int[0];
+    int[] indexStamps = new int[0];
+    int indexStamp;
+    int[] nodeNeighbor = new int[0];
+    int[] nodeNext = new int[0];
+    int[] pairs = new int[0];
+
+    private GraphWorkspace() {
+    }
+
+    static GraphWorkspace get() {
+        return LOCAL.get();
+    }
+
+    // 정점 n개에 대한 새 방문 표시를 시작한다.
+    int nextEpoch(int n) {
+        if (mark.length < n) {
+            mark = new int[grownSize(mark.length, n)];
+        }
+        if (++epoch == 0) {
+            Arrays.fill(mark, 0);
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    // 색인 칸 capacity개에 대한 새 표시를 시작한다.
+    int nextIndexStamp(int capacity) {
+        if (indexStamps.length < capacity) {
+            indexStamps = new int[grownSize(indexStamps.length, capacity)];
+            indexKeys = new int[indexStamps.length];
+            indexHeads = new int[indexStamps.length];
+        }
+        if (++indexStamp == 0) {
+            Arrays.fill(indexStamps, 0);
+            indexStamp = 1;
+        }
+        return indexStamp;
+    }
+
+    static int[] ensure(int[] a, int n) {
+        return a.length >= n ? a : new int[grownSize(a.length, n)];
+    }
+
+    private static int grownSize(int current, int n) {
+        return Math.max(n, current * 2);
+    }
+}
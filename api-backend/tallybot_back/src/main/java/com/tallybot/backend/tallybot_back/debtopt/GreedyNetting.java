@@ -0,0 +1,102 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+/*
+ * 잔액 벡터만으로 송금 관계를 만드는 O(n log n) 최적화.
+ * 받을 사람(채권자)과 줄 사람(채무자)을 각각 최대 힙에 넣고,
+ * 가장 큰 채무자가 가장 큰 채권자에게 보낼 수 있는 만큼 보낸다.
+ * 매 송금마다 최소 한 명의 잔액이 0이 되므로 송금은 최대 n - 1번이다.
+ * 오일러 회로 단계나 그래프 복사가 없어 수천 명 규모의 그룹에 쓴다.
+ */
+public final class GreedyNetting {
+
+    private GreedyNetting() {
+    }
+
+    public static Graph summarize(Graph g) {
+        return summarize(g.csr().balances());
+    }
+
+    public static Graph summarize(int[] balances) {
+        Graph res = new Graph(balances.length);
+        MaxHeap creditors = new MaxHeap(balances.length);
+        MaxHeap debtors = new MaxHeap(balances.length);
+        for (int v = 0; v < balances.length; v++) {
+            if (balances[v] > 0) {
+                creditors.push(balances[v], v);
+            } else if (balances[v] < 0) {
+                debtors.push(-(long) balances[v], v);
+            }
+        }
+
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            long credit = creditors.topKey();
+            int creditor = creditors.pop();
+            long debt = debtors.topKey();
+            int debtor = debtors.pop();
+
+            long amount = Math.min(credit, debt);
+            res.addEdge(debtor, creditor, (int) amount);
+
+            if (credit > amount) {
+                creditors.push(credit - amount, creditor);
+            }
+            if (debt > amount) {
+                debtors.push(debt - amount, debtor);
+            }
+        }
+        return res;
+    }
+
+    // (금액, 정점) 쌍을 원시 배열에 담는 최대 힙
+    static final class MaxHeap {
+        private final long[] keys;
+        private final int[] values;
+        private int size;
+
+        MaxHeap(int capacity) {
+            keys = new long[Math.max(1, capacity)];
+            values = new int[Math.max(1, capacity)];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long topKey() {
+            return keys[0];
+        }
+
+        void push(long key, int value) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] >= key) break;
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        // 최대 원소를 꺼내 그 정점을 반환한다.
+        int pop() {
+            int top = values[0];
+            long key = keys[--size];
+            int value = values[size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && keys[child + 1] > keys[child]) child++;
+                if (key >= keys[child]) break;
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            keys[i] = key;
+            values[i] = value;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.util.function.UnaryOperator;
+
+/*
+ * 이미 최적화된 송금 그래프에 잔액 변화(delta)만 반영한다.
+ * 잔액이 바뀐 멤버가 속한 연결 성분들만 하나로 묶어 다시 최적화하고,
+ * 나머지 성분의 송금은 그대로 둔다.
+ * 성분마다 잔액 합이 0이고 delta의 합도 0이므로, 묶은 성분들만으로 정산이 닫힌다.
+ */
+public final class IncrementalOptimizer {
+
+    private IncrementalOptimizer() {
+    }
+
+    /*
+     * current: 현재 송금 그래프, delta: 정점별 잔액 변화 (길이는 current의 정점 수, 합 0)
+     * optimizer: 묶은 성분에 쓸 최적화 (예: OptimizationService::optimizeGraph)
+     */
+    public static Patch reoptimize(Graph current, int[] delta, UnaryOperator<Graph> optimizer) {
+        int n = current.getVertexCount();
+        if (delta.length != n) {
+            throw new IllegalArgumentException("delta 길이가 정점 수와 다릅니다: " + delta.length + " != " + n);
+        }
+
+        CsrGraph csr = current.csr();
+        UnionFind uf = new UnionFind(n);
+        csr.forEachEdge((source, destination, weight) -> uf.union(source, destination));
+
+        boolean[] touchedRoot = new boolean[n];
+        long deltaSum = 0;
+        for (int v = 0; v < n; v++) {
+            if (delta[v] != 0) {
+                touchedRoot[uf.find(v)] = true;
+                deltaSum += delta[v];
+            }
+        }
+        if (deltaSum != 0) {
+            throw new IllegalArgumentException("delta의 합이 0이 아닙니다: " + deltaSum);
+        }
+
+        // 바뀐 성분의 정점만 압축
+        int[] local = new int[n];
+        int m = 0;
+        for (int v = 0; v < n; v++) {
+            local[v] = touchedRoot[uf.find(v)] ? m++ : -1;
+        }
+        int[] vertices = new int[m];
+        int[] subDelta = new int[m];
+        for (int v = 0; v < n; v++) {
+            if (local[v] != -1) {
+                vertices[local[v]] = v;
+                subDelta[local[v]] = delta[v];
+            }
+        }
+
+        Graph sub = new Graph(m);
+        csr.forEachEdge((source, destination, weight) -> {
+            if (local[source] != -1) {
+                sub.addEdge(local[source], local[destination], weight);
+            }
+        });
+        int before = sub.getEdgeCount();
+        // delta는 잔액만 주어지므로 상계 송금으로 바꿔 더한다.
+        sub.csr().plusAll(GreedyNetting.summarize(subDelta).csr());
+        sub.removeZero();
+
+        Graph optimized = m == 0 ? sub : optimizer.apply(sub);
+        if (optimized.getEdgeCount() >= sub.getEdgeCount()) {
+            optimized = sub;
+        }
+
+        Graph res = new Graph(n);
+        optimized.forEachEdge((source, destination, weight) ->
+                res.addEdge(vertices[source], vertices[destination], weight));
+        return new Patch(vertices, res, before);
+    }
+
+    /*
+     * vertices: 다시 최적화한 성분들의 정점 (이 정점들 사이의 기존 송금은 graph로 교체)
+     * graph: 그 정점들 사이의 새 송금 (current와 같은 정점 번호)
+     * replacedEdges: 교체된 기존 송금 수
+     */
+    public record Patch(int[] vertices, Graph graph, int replacedEdges) {
+    }
+}
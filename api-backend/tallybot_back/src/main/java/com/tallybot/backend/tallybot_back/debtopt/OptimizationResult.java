@@ -0,0 +1,5 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+// 최적화된 그래프, 그것을 만든 엔진, 송금 횟수가 최소임이 증명되었는지
+public record OptimizationResult(Graph graph, OptimizerEngine engine, boolean provenOptimal) {
+}
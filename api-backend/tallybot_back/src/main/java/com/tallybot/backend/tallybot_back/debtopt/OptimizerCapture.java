@@ -0,0 +1,198 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/*
+ * 최적화 입력을 로컬 파일에 기록한다. (OptimizerReplay로 다시 돌려 본다)
+ *  - 파일 앞: MAGIC(4바이트) + 형식 버전(1바이트)
+ *  - 기록 한 건: 엔진(OptimizerEngine.code 1바이트), 걸린 시간(ns, 8바이트), 결과 간선 수(varint), 입력 그래프(GraphCodec)
+ *  - 멤버 정보는 남기지 않고, 정점 번호도 무작위로 섞어 멤버 순서가 드러나지 않게 한다. 금액은 그대로 둔다.
+ *  - 파일이 maxFileBytes를 넘으면 새 파일(capture-<시각>.bin)로 넘어가고, maxFiles개를 넘는 오래된 파일은 지운다.
+ * 기록 중 I/O 오류는 UncheckedIOException으로 던지므로 호출하는 쪽에서 삼켜야 최적화에 영향이 없다.
+ * 읽을 때 파일 끝에서 끊긴 마지막 기록만 건너뛰고, 그 밖의 깨진 데이터는 IllegalArgumentException으로 알린다.
+ */
+public final class OptimizerCapture {
+    private static final String PREFIX = "capture-";
+    private static final String SUFFIX = ".bin";
+    private static final int MAGIC = 0x54424f43; // "TBOC"
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 5;
+
+    private final Path dir;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final Random random = new Random();
+
+    private FileChannel current;
+    private long currentBytes;
+
+    public OptimizerCapture(Path dir, long maxFileBytes, int maxFiles) {
+        if (maxFileBytes <= 0 || maxFiles <= 0) {
+            throw new IllegalArgumentException("maxFileBytes와 maxFiles는 양수여야 합니다.");
+        }
+        this.dir = dir;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    private OptimizerCapture() {
+        this.dir = null;
+        this.maxFileBytes = 0;
+        this.maxFiles = 0;
+    }
+
+    // 아무것도 기록하지 않는 인스턴스 (기본값)
+    public static OptimizerCapture disabled() {
+        return new OptimizerCapture();
+    }
+
+    public boolean isEnabled() {
+        return dir != null;
+    }
+
+    public synchronized void record(Graph input, OptimizerEngine engine, long elapsedNanos, int resultEdges) {
+        if (!isEnabled()) return;
+
+        Graph anonymized = shuffle(input);
+        ByteBuffer buf = ByteBuffer.allocate(1 + 8 + 5 + GraphCodec.encodedSize(anonymized));
+        buf.put((byte) engine.code());
+        buf.putLong(elapsedNanos);
+        GraphCodec.writeVarint(buf, resultEdges);
+        GraphCodec.write(anonymized, buf);
+        buf.flip();
+
+        try {
+            if (current == null || currentBytes + buf.remaining() > maxFileBytes) {
+                roll();
+            }
+            while (buf.hasRemaining()) {
+                currentBytes += current.write(buf);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void close() {
+        if (current == null) return;
+        try {
+            current.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            current = null;
+        }
+    }
+
+    /*
+     * engine: 기록 당시 쓴 엔진, elapsedNanos: 기록 당시 최적화 시간,
+     * resultEdges: 기록 당시 결과 간선 수, graph: 최적화 입력
+     */
+    public record Case(OptimizerEngine engine, long elapsedNanos, int resultEdges, Graph graph) {
+    }
+
+    // 파일 하나 또는 디렉터리 안의 모든 기록 파일(이름순)을 메모리 매핑해 읽는다.
+    public static List<Case> read(Path path) {
+        List<Case> cases = new ArrayList<>();
+        for (Path file : captureFiles(path)) {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                // 만든 직후 머리도 다 쓰기 전에 끝난 파일
+                if (in.remaining() < HEADER_BYTES) continue;
+                int magic = in.getInt();
+                byte version = in.get();
+                if (magic != MAGIC || version != VERSION) {
+                    throw new IllegalArgumentException("기록 파일 형식이 아닙니다: " + file + " (버전 " + version + ")");
+                }
+                while (in.hasRemaining()) {
+                    Case c = readCase(in, file);
+                    // 기록 도중 프로세스가 끝나 마지막 기록이 잘렸으면 그 파일은 거기까지만 읽는다.
+                    if (c == null) break;
+                    cases.add(c);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return cases;
+    }
+
+    // 파일 끝에서 끊겼으면 null
+    private static Case readCase(ByteBuffer in, Path file) {
+        int start = in.position();
+        try {
+            OptimizerEngine engine = OptimizerEngine.fromCode(in.get());
+            long elapsed = in.getLong();
+            int resultEdges = GraphCodec.readVarint(in);
+            return new Case(engine, elapsed, resultEdges, GraphCodec.read(in));
+        } catch (BufferUnderflowException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            // GraphCodec.read는 끊긴 데이터도 IllegalArgumentException으로 감싼다.
+            if (e.getCause() instanceof BufferUnderflowException) return null;
+            throw new IllegalArgumentException("깨진 기록: " + file + " 위치 " + start + " - " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Path> captureFiles(Path path) {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void roll() throws IOException {
+        if (current != null) {
+            current.close();
+        }
+        Files.createDirectories(dir);
+        // 같은 밀리초에 여러 번 넘어가도 이름이 겹치지 않게 뒤에 순번을 붙인다.
+        String stamp = String.format("%013d", System.currentTimeMillis());
+        Path file = dir.resolve(PREFIX + stamp + SUFFIX);
+        for (int i = 1; Files.exists(file); i++) {
+            file = dir.resolve(PREFIX + stamp + "_" + i + SUFFIX);
+        }
+        current = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).put(VERSION).flip();
+        while (header.hasRemaining()) {
+            current.write(header);
+        }
+        currentBytes = HEADER_BYTES;
+
+        List<Path> files = captureFiles(dir);
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private Graph shuffle(Graph g) {
+        int n = g.getVertexCount();
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i + 1);
+            perm[i] = perm[j];
+            perm[j] = i;
+        }
+        Graph res = new Graph(n);
+        g.forEachEdge((source, destination, weight) -> res.addEdge(perm[source], perm[destination], weight));
+        return res;
+    }
+}
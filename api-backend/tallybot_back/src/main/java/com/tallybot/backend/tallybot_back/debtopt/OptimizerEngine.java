@@ -0,0 +1,37 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+/*
+ * 정산 최적화에 사용된 엔진
+ * code는 파일(OptimizerCapture, GraphCodec)에 쓰는 값이므로 한 번 정하면 바꾸지 않는다. 새 엔진은 새 값을 받는다.
+ */
+public enum OptimizerEngine {
+    // 소규모 그룹: 최소 송금 횟수 정확해 (ExactOptimizer)
+    EXACT(0),
+    // 오일러 회로 기반 휴리스틱 (Graph.summarize / ParallelSummarizer)
+    HEURISTIC(1),
+    // 여러 전략 순서의 휴리스틱을 동시에 돌려 가장 좋은 결과 선택 (StrategyPortfolio)
+    PORTFOLIO(2),
+    // 대규모 그룹: 힙 기반 잔액 상계 (GreedyNetting)
+    NETTING(3),
+    // 제한 시간 안의 최선 결과 (AnytimeOptimizer)
+    ANYTIME(4),
+    // 같은 잔액 벡터의 이전 결과 재사용 (BalancePatternCache)
+    CACHED(5);
+
+    private final int code;
+
+    OptimizerEngine(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    public static OptimizerEngine fromCode(int code) {
+        for (OptimizerEngine engine : values()) {
+            if (engine.code == code) return engine;
+        }
+        throw new IllegalArgumentException("알 수 없는 엔진: " + code);
+    }
+}
@@ -0,0 +1,103 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/*
+ * OptimizerCapture로 기록한 입력을 여러 엔진으로 다시 돌려 본다. (Spring 없이 실행)
+ * 실행: ./gradlew replayOptimizer -Pcorpus=<기록 파일 또는 디렉터리> [-Pengines=summarize,netting] [-Prepeat=3]
+ * 기록마다 엔진별 평균 시간(ms), 1회 할당량(KB, 호출 스레드 기준), 결과 간선 수를 출력하고,
+ * 잔액이 바뀐 결과는 BAD로 표시한다. 마지막에 엔진별 합계를 출력한다.
+ */
+public final class OptimizerReplay {
+
+    static final Map<String, UnaryOperator<Graph>> ENGINES = new LinkedHashMap<>();
+
+    static {
+        ENGINES.put("summarize", Graph::summarize);
+        ENGINES.put("parallel", new ParallelSummarizer()::summarize);
+        ENGINES.put("netting", GreedyNetting::summarize);
+        ENGINES.put("exact", ExactOptimizer::summarize);
+        ENGINES.put("anytime", g -> AnytimeOptimizer.summarize(g, ExactOptimizer.DEFAULT_CUTOFF,
+                Deadline.after(Duration.ofSeconds(3))).graph());
+    }
+
+    private OptimizerReplay() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("usage: OptimizerReplay <capture file|dir> [engines (comma separated)] [repeat]");
+            System.exit(2);
+        }
+        List<String> engines = args.length > 1 ? List.of(args[1].split(",")) : List.copyOf(ENGINES.keySet());
+        int repeat = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        for (String name : engines) {
+            if (!ENGINES.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown engine: " + name + " (" + ENGINES.keySet() + ")");
+            }
+        }
+
+        List<OptimizerCapture.Case> cases = OptimizerCapture.read(Path.of(args[0]));
+        System.out.printf("%d cases, engines %s, repeat %d%n", cases.size(), engines, repeat);
+        System.out.printf("%5s %7s %7s %-9s %9s %7s | %-10s %9s %10s %7s%n",
+                "case", "members", "edges", "captured", "ms", "edges", "engine", "ms", "alloc KB", "edges");
+
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        for (String name : engines) {
+            totals.put(name, new long[3]);
+        }
+        for (int c = 0; c < cases.size(); c++) {
+            OptimizerCapture.Case cs = cases.get(c);
+            Graph g = cs.graph();
+            List<Integer> balances = g.balances();
+            for (String name : engines) {
+                Run run = run(ENGINES.get(name), g, repeat);
+                boolean balanced = Graph.equalBalances(balances, run.result().balances());
+                System.out.printf("%5d %7d %7d %-9s %9.2f %7d | %-10s %9.2f %10d %7d%s%n",
+                        c, g.getVertexCount(), g.getEdgeCount(), cs.engine(), cs.elapsedNanos() / 1e6,
+                        cs.resultEdges(), name, run.nanos() / 1e6, run.allocatedBytes() / 1024,
+                        run.result().getEdgeCount(), balanced ? "" : " BAD");
+                long[] t = totals.get(name);
+                t[0] += run.nanos();
+                t[1] += run.allocatedBytes();
+                t[2] += run.result().getEdgeCount();
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-10s %12s %14s %10s%n", "engine", "total ms", "total alloc KB", "edges");
+        totals.forEach((name, t) ->
+                System.out.printf("%-10s %12.2f %14d %10d%n", name, t[0] / 1e6, t[1] / 1024, t[2]));
+    }
+
+    // 한 번 돌려 데우고, repeat번 평균을 잰다.
+    static Run run(UnaryOperator<Graph> engine, Graph g, int repeat) {
+        Graph result = engine.apply(new Graph(g));
+        long nanos = 0;
+        long allocated = 0;
+        for (int r = 0; r < repeat; r++) {
+            Graph input = new Graph(g);
+            long a0 = allocatedBytes();
+            long t0 = System.nanoTime();
+            result = engine.apply(input);
+            nanos += System.nanoTime() - t0;
+            allocated += allocatedBytes() - a0;
+        }
+        int n = Math.max(1, repeat);
+        return new Run(result, nanos / n, allocated / n);
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    record Run(Graph result, long nanos, long allocatedBytes) {
+    }
+}
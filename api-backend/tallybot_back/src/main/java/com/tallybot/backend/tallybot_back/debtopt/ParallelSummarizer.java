@@ -0,0 +1,142 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Graph.summarize의 fork/join 버전.
+ * 간선 수가 threshold 이상인 조각은 별도 작업으로 나눠 최적화하고,
+ * 각 작업은 자기 결과 그래프에만 쓰므로 합칠 때까지 경합이 없다.
+ * 먼저 순환 송금을 상쇄하고(CycleCanceller), 남은 간선 수가 threshold 미만이면 순차 처리와 같다.
+ */
+public final class ParallelSummarizer {
+    public static final int DEFAULT_THRESHOLD = 256;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelSummarizer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public ParallelSummarizer(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = Math.max(2, threshold);
+    }
+
+    public Graph summarize(Graph g) {
+        return summarizeWithStats(g).graph();
+    }
+
+    public Graph summarize(Graph g, Deadline deadline) {
+        return summarizeWithStats(g, deadline).graph();
+    }
+
+    public Result summarizeWithStats(Graph g) {
+        return summarizeWithStats(g, Deadline.NONE);
+    }
+
+    // 제한 시간이 지나면 각 작업은 남은 조각을 defaultGraph로 정리하고 끝낸다.
+    public Result summarizeWithStats(Graph g, Deadline deadline) {
+        Graph work = new Graph(g);
+        int cycleEdges = CycleCanceller.cancel(work);
+        if (work.getEdgeCount() < threshold) {
+            return new Result(Graph.summarizeAcyclic(work, deadline), 0, 1, cycleEdges);
+        }
+
+        Stats stats = new Stats();
+        Graph resG = pool.invoke(new PieceTask(new UnionFind.Component(work, null), Graph.defaultStrategies(), deadline, stats, true));
+        resG.removeZero();
+        return new Result(resG, stats.forked.get(), stats.threads.size(), cycleEdges);
+    }
+
+    /*
+     * graph: 최적화 결과
+     * forkedTasks: 별도 작업으로 나눠 처리한 조각 수 (0이면 순차 처리)
+     * workerThreads: 실제로 일한 스레드 수
+     * cycleEdgesRemoved: 순환 상쇄 전처리로 지운 간선 수
+     */
+    public record Result(Graph graph, int forkedTasks, int workerThreads, int cycleEdgesRemoved) {
+    }
+
+    private static final class Stats {
+        final AtomicInteger forked = new AtomicInteger();
+        final Set<Long> threads = ConcurrentHashMap.newKeySet();
+    }
+
+    /*
+     * 작업마다 자기 조각의 정점 번호로 결과 그래프를 갖고,
+     * fork한 하위 작업의 결과는 join할 때 그 조각의 vertices로 번호를 바꿔 더한다.
+     * ForkJoinTask가 Serializable이라 붙는 경고만 끈다. (직렬화하지 않는다)
+     */
+    @SuppressWarnings("serial")
+    private final class PieceTask extends RecursiveTask<Graph> {
+        private final UnionFind.Component piece;
+        private final InfiniteIterator<WeightStrategy> weightStrategies;
+        private final Deadline deadline;
+        private final Stats stats;
+        // 맨 처음 작업은 성분 분리부터 한다.
+        private final boolean root;
+
+        PieceTask(UnionFind.Component piece, InfiniteIterator<WeightStrategy> weightStrategies, Deadline deadline,
+                  Stats stats, boolean root) {
+            this.piece = piece;
+            this.weightStrategies = weightStrategies;
+            this.deadline = deadline;
+            this.stats = stats;
+            this.root = root;
+        }
+
+        @Override
+        protected Graph compute() {
+            stats.threads.add(Thread.currentThread().getId());
+            Graph g = piece.graph();
+            Graph local = new Graph(g.getVertexCount());
+            Deque<UnionFind.Component> q = new ArrayDeque<>();
+            List<PieceTask> forked = new ArrayList<>();
+
+            if (root) {
+                offer(UnionFind.splitGraph(g), q, forked);
+            } else {
+                int[] identity = new int[g.getVertexCount()];
+                for (int i = 0; i < identity.length; i++) {
+                    identity[i] = i;
+                }
+                q.add(new UnionFind.Component(g, identity));
+            }
+            while (!q.isEmpty()) {
+                if (deadline.expired()) {
+                    Graph.flush(q, local);
+                    break;
+                }
+                offer(Graph.summarizeStep(q.poll(), weightStrategies, local, deadline), q, forked);
+            }
+
+            for (PieceTask task : forked) {
+                Graph.addMapped(local, task.join(), task.piece.vertices());
+            }
+            return local;
+        }
+
+        // 큰 조각은 새 작업으로 fork하고, 작은 조각은 현재 작업의 큐에 넣는다.
+        private void offer(List<UnionFind.Component> pieces, Deque<UnionFind.Component> q, List<PieceTask> forked) {
+            if (pieces.size() < 2) {
+                q.addAll(pieces);
+                return;
+            }
+            for (UnionFind.Component p : pieces) {
+                if (p.graph().getEdgeCount() >= threshold) {
+                    PieceTask task = new PieceTask(p, weightStrategies, deadline, stats, false);
+                    task.fork();
+                    forked.add(task);
+                    stats.forked.incrementAndGet();
+                } else {
+                    q.add(p);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/*
+ * 후보 엔진을 실제 최적화와 같은 입력으로 전용 풀에서 몰래(shadow) 돌려 비교한다.
+ *  - sampleRate 비율의 입력만 뽑고, 입력은 복사해서 넘기므로 실제 결과(저장되는 송금)에는 영향이 없다.
+ *  - 풀의 대기열이 차면 그 입력은 건너뛴다. (rejected)
+ *  - 비교 결과(Comparison)는 풀 스레드에서 listener로 넘긴다.
+ */
+public final class ShadowOptimizer implements AutoCloseable {
+
+    private final String engineName;
+    private final UnaryOperator<Graph> engine;
+    private final double sampleRate;
+    private final ExecutorService executor;
+    private final Consumer<Comparison> listener;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ShadowOptimizer(String engineName, UnaryOperator<Graph> engine, double sampleRate,
+                           ExecutorService executor, Consumer<Comparison> listener) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate는 0 이상 1 이하여야 합니다: " + sampleRate);
+        }
+        this.engineName = engineName;
+        this.engine = engine;
+        this.sampleRate = sampleRate;
+        this.executor = executor;
+        this.listener = listener;
+    }
+
+    // OptimizerReplay와 같은 엔진 이름(summarize, parallel, netting, exact, anytime)으로 만든다.
+    public static ShadowOptimizer named(String engineName, double sampleRate,
+                                        ExecutorService executor, Consumer<Comparison> listener) {
+        UnaryOperator<Graph> engine = OptimizerReplay.ENGINES.get(engineName);
+        if (engine == null) {
+            throw new IllegalArgumentException(
+                    "Unknown engine: " + engineName + " (" + OptimizerReplay.ENGINES.keySet() + ")");
+        }
+        return new ShadowOptimizer(engineName, engine, sampleRate, executor, listener);
+    }
+
+    // 아무것도 돌리지 않는 인스턴스 (기본값)
+    public static ShadowOptimizer disabled() {
+        return new ShadowOptimizer(null, null, 0, null, c -> { });
+    }
+
+    // 스레드 threads개, 대기열 queueSize개의 전용 풀. 우선순위를 낮춰 실제 요청 처리를 방해하지 않게 한다.
+    public static ExecutorService boundedExecutor(int threads, int queueSize) {
+        int size = Math.max(1, threads);
+        return new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                r -> {
+                    Thread t = new Thread(r, "optimizer-shadow");
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean isEnabled() {
+        return engine != null && sampleRate > 0;
+    }
+
+    public String engineName() {
+        return engineName;
+    }
+
+    /*
+     * input: 실제 최적화 입력, primary: 실제 결과, primaryNanos: 실제 최적화 시간
+     * 뽑히지 않았거나 대기열이 차 있으면 false
+     */
+    public boolean offer(Graph input, Graph primary, long primaryNanos) {
+        if (!isEnabled() || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return false;
+        }
+
+        // 호출한 쪽이 이후에 그래프를 바꿔도 비교가 흔들리지 않게 지금 복사·집계해 둔다.
+        Graph copy = new Graph(input);
+        int primaryEdges = primary.getEdgeCount();
+        long primaryAmount = totalAmount(primary);
+        try {
+            executor.execute(() -> listener.accept(compare(copy, primaryEdges, primaryAmount, primaryNanos)));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        submitted.incrementAndGet();
+        return true;
+    }
+
+    private Comparison compare(Graph input, int primaryEdges, long primaryAmount, long primaryNanos) {
+        int inputEdges = input.getEdgeCount();
+        List<Integer> balances = input.balances();
+        long t0 = System.nanoTime();
+        Graph res;
+        try {
+            res = engine.apply(input);
+        } catch (RuntimeException e) {
+            return new Comparison(engineName, inputEdges, primaryEdges, primaryAmount, primaryNanos,
+                    -1, -1, System.nanoTime() - t0, false, e);
+        }
+        long nanos = System.nanoTime() - t0;
+        return new Comparison(engineName, inputEdges, primaryEdges, primaryAmount, primaryNanos,
+                res.getEdgeCount(), totalAmount(res), nanos, Graph.equalBalances(balances, res.balances()), null);
+    }
+
+    static long totalAmount(Graph g) {
+        long[] sum = new long[1];
+        g.forEachEdge((source, destination, weight) -> sum[0] += Math.abs((long) weight));
+        return sum[0];
+    }
+
+    public long submitted() {
+        return submitted.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /*
+     * engine: 후보 엔진 이름, inputEdges: 입력 간선 수
+     * primary*: 실제 결과의 간선 수 / 송금 총액 / 시간, shadow*: 후보 엔진의 간선 수 / 송금 총액 / 시간
+     * balanced: 후보 결과의 잔액이 입력과 같은지, failure: 후보 엔진이 던진 예외 (없으면 null)
+     */
+    public record Comparison(String engine, int inputEdges,
+                             int primaryEdges, long primaryAmount, long primaryNanos,
+                             int shadowEdges, long shadowAmount, long shadowNanos,
+                             boolean balanced, Throwable failure) {
+    }
+}
@@ -0,0 +1,198 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import com.tallybot.backend.tallybot_back.debtopt.WeightStrategies.MaxMidRemove;
+import com.tallybot.backend.tallybot_back.debtopt.WeightStrategies.MaxNumMidRemove;
+import com.tallybot.backend.tallybot_back.debtopt.WeightStrategies.MaxNumRemove;
+import com.tallybot.backend.tallybot_back.debtopt.WeightStrategies.MaxRemove;
+import com.tallybot.backend.tallybot_back.debtopt.WeightStrategies.MidPointRemove;
+import com.tallybot.backend.tallybot_back.debtopt.WeightStrategies.MinMidRemove;
+import com.tallybot.backend.tallybot_back.debtopt.WeightStrategies.MinNumMidRemove;
+import com.tallybot.backend.tallybot_back.debtopt.WeightStrategies.MinRemove;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+ * 여러 WeightStrategy 순서로 Graph.summarize를 동시에 돌리고 간선이 가장 적은 결과를 고른다.
+ *  - 어떤 결과가 하한(n - k)에 닿으면 더 나을 수 없으므로 나머지를 취소한다.
+ *  - budget 안에 끝난 결과 중에서만 고르고, 하나도 없으면 GreedyNetting 결과를 쓴다.
+ * 전략 간 우열은 Result의 edgeCounts / winners로 확인한다.
+ */
+public final class StrategyPortfolio implements AutoCloseable {
+    // 어떤 전략도 budget 안에 끝나지 못했을 때의 이름
+    public static final String FALLBACK = "GreedyNetting";
+
+    private final ExecutorService executor;
+    private final Duration budget;
+    private final List<Candidate> candidates;
+
+    public StrategyPortfolio(ExecutorService executor, Duration budget) {
+        this(executor, budget, defaultCandidates());
+    }
+
+    StrategyPortfolio(ExecutorService executor, Duration budget, List<Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("전략 후보가 없습니다.");
+        }
+        this.executor = executor;
+        this.budget = budget;
+        this.candidates = List.copyOf(candidates);
+    }
+
+    // 스레드 threads개, 대기열 threads * 후보 수 크기의 전용 풀을 만든다. 대기열이 차면 해당 후보는 건너뛴다.
+    public static ExecutorService boundedExecutor(int threads) {
+        int size = Math.max(1, threads);
+        return new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(size * defaultCandidates().size()),
+                r -> {
+                    Thread t = new Thread(r, "optimizer-portfolio");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // 첫 후보는 기존 Graph.summarize와 같은 순서
+    static List<Candidate> defaultCandidates() {
+        return List.of(
+                new Candidate("MinMid+MaxNumMid", List.of(new MinMidRemove(), new MaxNumMidRemove())),
+                new Candidate("MaxNumMid+MinMid", List.of(new MaxNumMidRemove(), new MinMidRemove())),
+                new Candidate("MinMid", List.of(new MinMidRemove())),
+                new Candidate("MaxMid", List.of(new MaxMidRemove())),
+                new Candidate("MinNumMid", List.of(new MinNumMidRemove())),
+                new Candidate("MaxNum+Min", List.of(new MaxNumRemove(), new MinRemove())),
+                new Candidate("Max+MidPoint", List.of(new MaxRemove(), new MidPointRemove()))
+        );
+    }
+
+    public List<String> candidateNames() {
+        return candidates.stream().map(Candidate::name).toList();
+    }
+
+    public Result summarize(Graph g) {
+        int lowerBound = lowerBound(g.csr().balances());
+        long deadline = System.nanoTime() + budget.toNanos();
+
+        // 순환 상쇄는 전략과 무관하므로 후보마다 하지 않고 한 번만 한다.
+        Graph acyclic = new Graph(g);
+        CycleCanceller.cancel(acyclic);
+
+        CompletionService<Graph> cs = new ExecutorCompletionService<>(executor);
+        Map<Future<Graph>, String> running = new HashMap<>();
+        for (Candidate c : candidates) {
+            try {
+                running.put(cs.submit(() -> summarize(acyclic, c.strategies())), c.name());
+            } catch (RejectedExecutionException e) {
+                // 풀이 꽉 찼으면 이 후보는 이번에 뛰지 않는다.
+            }
+        }
+
+        Map<String, Integer> edgeCounts = new LinkedHashMap<>();
+        Graph best = null;
+        boolean lowerBoundReached = false;
+        try {
+            while (!running.isEmpty() && !lowerBoundReached) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) break;
+                Future<Graph> done = cs.poll(left, TimeUnit.NANOSECONDS);
+                if (done == null) break;
+
+                String name = running.remove(done);
+                Graph res;
+                try {
+                    res = done.get();
+                } catch (ExecutionException e) {
+                    continue;
+                }
+                edgeCounts.put(name, res.getEdgeCount());
+                if (best == null || res.getEdgeCount() < best.getEdgeCount()) {
+                    best = res;
+                }
+                lowerBoundReached = res.getEdgeCount() <= lowerBound;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Future<Graph> f : running.keySet()) {
+                f.cancel(true);
+            }
+        }
+
+        if (best == null) {
+            return new Result(GreedyNetting.summarize(g), List.of(FALLBACK), edgeCounts,
+                    running.values().stream().toList(), lowerBound, false);
+        }
+
+        int bestCount = best.getEdgeCount();
+        List<String> winners = new ArrayList<>();
+        edgeCounts.forEach((name, count) -> {
+            if (count == bestCount) winners.add(name);
+        });
+        return new Result(best, winners, edgeCounts, running.values().stream().toList(),
+                lowerBound, lowerBoundReached);
+    }
+
+    // Graph.summarize와 같되, 취소(인터럽트)되면 조각 사이에서 멈춘다.
+    static Graph summarize(Graph g, List<WeightStrategy> strategies) {
+        InfiniteIterator<WeightStrategy> weightStrategies = InfiniteIterator.begin(strategies);
+        Queue<UnionFind.Component> q = new ArrayDeque<>(UnionFind.splitGraph(g));
+        Graph resG = new Graph(g.getVertexCount());
+        while (!q.isEmpty()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+            q.addAll(Graph.summarizeStep(q.poll(), weightStrategies, resG));
+        }
+
+        resG.removeZero();
+        return resG;
+    }
+
+    /*
+     * 송금 횟수 하한 n - k.
+     * n은 잔액이 0이 아닌 사람 수, k는 합이 0인 부분집합 개수의 상한이다.
+     * 2명짜리 부분집합은 (b, -b) 쌍뿐이고 나머지는 3명 이상이므로
+     * k <= pairs + (n - 2 * pairs) / 3 (pairs: 서로 상쇄되는 쌍의 최대 개수)
+     */
+    public static int lowerBound(Graph g) {
+        return lowerBound(g.csr().balances());
+    }
+
+    static int lowerBound(int[] balances) {
+        Map<Integer, Integer> open = new HashMap<>();
+        int n = 0;
+        int pairs = 0;
+        for (int b : balances) {
+            if (b == 0) continue;
+            n++;
+            Integer waiting = open.get(-b);
+            if (waiting != null && waiting > 0) {
+                open.put(-b, waiting - 1);
+                pairs++;
+            } else {
+                open.merge(b, 1, Integer::sum);
+            }
+        }
+        return n - (pairs + (n - 2 * pairs) / 3);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    record Candidate(String name, List<WeightStrategy> strategies) {
+    }
+
+    /*
+     * graph: 가장 간선이 적은 결과
+     * winners: graph와 같은 간선 수를 낸 후보들 (모두 실패했으면 FALLBACK)
+     * edgeCounts: budget 안에 끝난 후보별 간선 수
+     * cancelled: budget을 넘기거나 하한 도달로 취소된 후보들
+     * lowerBoundReached: 하한에 닿아 최적이 보장되는지
+     */
+    public record Result(Graph graph, List<String> winners, Map<String, Integer> edgeCounts,
+                         List<String> cancelled, int lowerBound, boolean lowerBoundReached) {
+    }
+}
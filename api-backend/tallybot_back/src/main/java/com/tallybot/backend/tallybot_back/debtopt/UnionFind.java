@@ -3,64 +3,105 @@ package com.tallybot.backend.tallybot_back.debtopt;
 import java.util.*;
 
 public class UnionFind {
-    List<Integer> disjointSet;
-    List<Integer> rank;
+    private final int[] parent;
+    // 루트에서만 의미 있는 집합 크기
+    private final int[] size;
 
     public UnionFind(int vertices) {
-        disjointSet = new ArrayList<>(vertices);
-        rank = new ArrayList<>(Collections.nCopies(vertices, 1));
+        parent = new int[vertices];
+        size = new int[vertices];
         for(int i = 0; i < vertices; i++) {
-            disjointSet.add(i);
+            parent[i] = i;
+            size[i] = 1;
         }
     }
 
+    // 경로 절반 압축(path halving): 올라가면서 조부모를 부모로 삼는다.
     public int find(int idx) {
-        if(idx == disjointSet.get(idx)) return idx;
-
-        disjointSet.set(idx, find(disjointSet.get(idx)));
-        return find(disjointSet.get(idx));
+        while(parent[idx] != idx) {
+            parent[idx] = parent[parent[idx]];
+            idx = parent[idx];
+        }
+        return idx;
     }
 
-    public void union(int a, int b) {
+    // 크기가 작은 쪽을 큰 쪽 아래에 붙인다. 새로 합쳐졌으면 true
+    public boolean union(int a, int b) {
         a = find(a);
         b = find(b);
+        if(a == b) return false;
 
-        if(rank.get(a) < rank.get(b)) {
+        if(size[a] < size[b]) {
             int tmp = a;
             a = b;
             b = tmp;
         }
 
-        disjointSet.set(b, a);
-        rank.set(a, rank.get(a) + rank.get(b));
+        parent[b] = a;
+        size[a] += size[b];
+        return true;
+    }
+
+    public int size(int idx) {
+        return size[find(idx)];
     }
 
-    public static List<Graph> splitGraph(Graph g) {
-        UnionFind uf = new UnionFind(g.getVertexCount());
+    /*
+     * 간선이 있는 연결 성분마다 그 성분의 정점 수 크기로 번호를 다시 매긴 그래프를 만든다.
+     * vertices[i]는 성분 그래프의 정점 i가 g에서 몇 번 정점인지를 나타낸다.
+     * 성분 순서는 성분에서 가장 작은 정점 번호 순이다.
+     */
+    public static List<Component> splitGraph(Graph g) {
+        CsrGraph csr = g.csr();
+        int n = g.getVertexCount();
+        UnionFind uf = new UnionFind(n);
 
-        for(int i = 0; i < g.getVertexCount(); i++) {
-            for(Integer end : g.getAdjacencyList().get(i).keySet()) {
-                uf.union(i, end);
+        for(int i = 0; i < n; i++) {
+            for(int k = 0; k < csr.degree(i); k++) {
+                int j = csr.target(i, k);
+                if(i < j) uf.union(i, j);
             }
         }
 
-        Map<Integer, Graph> m = new HashMap<>();
+        // 성분 번호와 성분 안에서의 번호
+        int[] componentOf = new int[n];
+        int[] local = new int[n];
+        int[] componentSize = new int[n];
+        Arrays.fill(componentOf, -1);
+        int components = 0;
+        for(int v = 0; v < n; v++) {
+            if(csr.degree(v) == 0) continue;
+            int root = uf.find(v);
+            if(componentOf[root] == -1) {
+                componentOf[root] = components++;
+            }
+            int c = componentOf[root];
+            local[v] = componentSize[c]++;
+        }
 
-        for(int i = 0; i < g.getVertexCount(); i++) {
-            if(g.getAdjacencyList().get(i).isEmpty()) continue;
-            final int i2 = i;
-            int parent = uf.find(i);
-            for(Integer j : g.getAdjacencyList().get(i).keySet()) {
-                m.compute(parent, (k, v) -> {
-                    if(v == null)
-                        v = new Graph(g.getVertexCount());
-                    if(i2 < j)
-                        v.addEdge(i2, j, g.getAdjacencyList().get(i2).get(j));
-                    return v;
-                });
+        int[][] vertices = new int[components][];
+        Graph[] graphs = new Graph[components];
+        for(int c = 0; c < components; c++) {
+            vertices[c] = new int[componentSize[c]];
+            graphs[c] = new Graph(componentSize[c]);
+        }
+        for(int v = 0; v < n; v++) {
+            if(csr.degree(v) > 0) {
+                vertices[componentOf[uf.find(v)]][local[v]] = v;
             }
         }
 
-        return m.values().stream().toList();
+        csr.forEachEdge((source, destination, weight) ->
+                graphs[componentOf[uf.find(source)]].addEdge(local[source], local[destination], weight));
+
+        List<Component> res = new ArrayList<>(components);
+        for(int c = 0; c < components; c++) {
+            res.add(new Component(graphs[c], vertices[c]));
+        }
+        return res;
+    }
+
+    // graph: 성분 그래프, vertices: 성분 정점 번호 -> 원래 그래프의 정점 번호
+    public record Component(Graph graph, int[] vertices) {
     }
 }
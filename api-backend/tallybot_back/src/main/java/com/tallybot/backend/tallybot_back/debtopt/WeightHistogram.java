@@ -0,0 +1,81 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+/*
+ * 가중치 -> 개수 빈도표. 원시 int 배열 기반 선형 탐사 해시 테이블.
+ * 개수가 0이 된 항목은 지우지 않고 남겨 두며, forEach에서 건너뛴다.
+ */
+final class WeightHistogram {
+    private int[] keys;
+    private int[] counts;
+    private boolean[] used;
+    private int entries;
+
+    WeightHistogram(int expected) {
+        int capacity = 8;
+        while (capacity < expected * 2) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        counts = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    void add(int key, int delta) {
+        int s = slot(key);
+        if (!used[s]) {
+            used[s] = true;
+            keys[s] = key;
+            if (++entries * 2 > keys.length) {
+                counts[s] = delta;
+                grow();
+                return;
+            }
+        }
+        counts[s] += delta;
+    }
+
+    int count(int key) {
+        int s = slot(key);
+        return used[s] ? counts[s] : 0;
+    }
+
+    void forEach(Consumer consumer) {
+        for (int s = 0; s < keys.length; s++) {
+            if (used[s] && counts[s] > 0) {
+                consumer.accept(keys[s], counts[s]);
+            }
+        }
+    }
+
+    // key가 있는 칸, 없으면 들어갈 빈 칸
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int h = key * 0x9E3779B9;
+        int s = (h ^ (h >>> 16)) & mask;
+        while (used[s] && keys[s] != key) {
+            s = (s + 1) & mask;
+        }
+        return s;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        boolean[] oldUsed = used;
+        keys = new int[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        for (int s = 0; s < oldKeys.length; s++) {
+            if (oldUsed[s]) {
+                int t = slot(oldKeys[s]);
+                used[t] = true;
+                keys[t] = oldKeys[s];
+                counts[t] = oldCounts[s];
+            }
+        }
+    }
+
+    interface Consumer {
+        void accept(int key, int count);
+    }
+}
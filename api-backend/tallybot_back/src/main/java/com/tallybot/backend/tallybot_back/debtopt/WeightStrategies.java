@@ -0,0 +1,240 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+/*
+ * removeAndSplit에서 회로를 자를 가중치를 고르는 전략들. (Graph.summarize, StrategyPortfolio)
+ */
+final class WeightStrategies {
+
+    private WeightStrategies() {
+    }
+
+    static final class MaxRemove implements WeightStrategy {
+        @Override
+        public int getWeight(FlattedGraph f) {
+            int maxWeight = Integer.MIN_VALUE;
+            for (int i = 0; i < f.weightCount(); i++) {
+                int weight = f.weightAt(i);
+                if (weight > maxWeight) {
+                    maxWeight = weight;
+                }
+            }
+
+            return maxWeight;
+        }
+
+        @Override
+        public String toString() {
+            return "MaxRemove";
+        }
+    }
+
+    static final class MinRemove implements WeightStrategy {
+        @Override
+        public int getWeight(FlattedGraph f) {
+            int minWeight = Integer.MAX_VALUE;
+            for (int i = 0; i < f.weightCount(); i++) {
+                int weight = f.weightAt(i);
+                if (weight < minWeight) {
+                    minWeight = weight;
+                }
+            }
+
+            return minWeight;
+        }
+
+        @Override
+        public String toString() {
+            return "MinRemove";
+        }
+    }
+
+    static final class MidPointRemove implements WeightStrategy {
+        @Override
+        public int getWeight(FlattedGraph f) {
+            return f.weightAt(f.weightCount() / 2);
+        }
+
+        @Override
+        public String toString() {
+            return "MidPointRemove";
+        }
+    }
+
+    static final class MaxMidRemove implements WeightStrategy {
+        @Override
+        public int getWeight(FlattedGraph f) {
+            int[] idxs = new int[2];
+            int maxIdx = (f.weightCount() - 1) / 2;
+            int max = f.weightAt(maxIdx);
+
+            if (f.weightCount() % 2 == 1) {
+                idxs[0] = f.weightCount() / 2 - 1;
+                idxs[1] = f.weightCount() / 2 + 1;
+            } else {
+                idxs[0] = f.weightCount() / 2 - 1;
+                idxs[1] = f.weightCount() / 2;
+            }
+
+            for (; idxs[0] != -1; idxs[0]--, idxs[1]++) {
+                if(max < f.weightAt(idxs[0])) {
+                    maxIdx = idxs[0];
+                    max = f.weightAt(idxs[0]);
+                }
+                if(max < f.weightAt(idxs[1])) {
+                    maxIdx = idxs[1];
+                    max = f.weightAt(idxs[1]);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "MaxMidRemove";
+        }
+    }
+
+    static final class MinMidRemove implements WeightStrategy {
+        @Override
+        public int getWeight(FlattedGraph f) {
+            int[] idxs = new int[2];
+            int minIdx = (f.weightCount() - 1) / 2;
+            int min = f.weightAt(minIdx);
+
+            if (f.weightCount() % 2 == 1) {
+                idxs[0] = f.weightCount() / 2 - 1;
+                idxs[1] = f.weightCount() / 2 + 1;
+            } else {
+                idxs[0] = f.weightCount() / 2 - 1;
+                idxs[1] = f.weightCount() / 2;
+            }
+
+            for (; idxs[0] != -1; idxs[0]--, idxs[1]++) {
+                if(min > f.weightAt(idxs[0])) {
+                    minIdx = idxs[0];
+                    min = f.weightAt(idxs[0]);
+                }
+                if(min > f.weightAt(idxs[1])) {
+                    minIdx = idxs[1];
+                    min = f.weightAt(idxs[1]);
+                }
+            }
+            return min;
+        }
+
+        @Override
+        public String toString() {
+            return "MinMidRemove";
+        }
+    }
+
+    static final class MaxNumRemove implements WeightStrategy {
+        @Override
+        public int getWeight(FlattedGraph f) {
+            // 개수가 같으면 작은 가중치
+            int[] best = {Integer.MIN_VALUE, -1};
+            f.forEachFrequency((weight, count) -> {
+                if (count > best[0] || (count == best[0] && weight < best[1])) {
+                    best[0] = count;
+                    best[1] = weight;
+                }
+            });
+
+            return best[1];
+        }
+
+        @Override
+        public String toString() {
+            return "MaxNumRemove";
+        }
+    }
+
+    static final class MinNumRemove implements WeightStrategy {
+        @Override
+        public int getWeight(FlattedGraph f) {
+            // 개수가 같으면 작은 가중치
+            int[] best = {Integer.MAX_VALUE, -1};
+            f.forEachFrequency((weight, count) -> {
+                if (count < best[0] || (count == best[0] && weight < best[1])) {
+                    best[0] = count;
+                    best[1] = weight;
+                }
+            });
+
+            return best[1];
+        }
+
+        @Override
+        public String toString() {
+            return "MinNumRemove";
+        }
+    }
+
+    static final class MaxNumMidRemove implements WeightStrategy {
+        @Override
+        public int getWeight(FlattedGraph f) {
+            int[] idxs = new int[2];
+            int maxNumIdx = (f.weightCount() - 1) / 2;
+            int maxNum = f.frequency(f.weightAt(maxNumIdx));
+
+            if (f.weightCount() % 2 == 1) {
+                idxs[0] = f.weightCount() / 2 - 1;
+                idxs[1] = f.weightCount() / 2 + 1;
+            } else {
+                idxs[0] = f.weightCount() / 2 - 1;
+                idxs[1] = f.weightCount() / 2;
+            }
+
+            for (; idxs[0] != -1; idxs[0]--, idxs[1]++) {
+                if(maxNum < f.frequency(f.weightAt(idxs[0]))) {
+                    maxNumIdx = idxs[0];
+                    maxNum = f.frequency(f.weightAt(idxs[0]));
+                }
+                if(maxNum < f.frequency(f.weightAt(idxs[1]))) {
+                    maxNumIdx = idxs[1];
+                    maxNum = f.frequency(f.weightAt(idxs[1]));
+                }
+            }
+            return f.weightAt(maxNumIdx);
+        }
+
+        @Override
+        public String toString() {
+            return "MaxNumMidRemove";
+        }
+    }
+
+    static final class MinNumMidRemove implements WeightStrategy {
+        @Override
+        public int getWeight(FlattedGraph f) {
+            int[] idxs = new int[2];
+            int minNumIdx = (f.weightCount() - 1) / 2;
+            int minNum = f.frequency(f.weightAt(minNumIdx));
+
+            if (f.weightCount() % 2 == 1) {
+                idxs[0] = f.weightCount() / 2 - 1;
+                idxs[1] = f.weightCount() / 2 + 1;
+            } else {
+                idxs[0] = f.weightCount() / 2 - 1;
+                idxs[1] = f.weightCount() / 2;
+            }
+
+            for (; idxs[0] != -1; idxs[0]--, idxs[1]++) {
+                if(minNum > f.frequency(f.weightAt(idxs[0]))) {
+                    minNumIdx = idxs[0];
+                    minNum = f.frequency(f.weightAt(idxs[0]));
+                }
+                if(minNum > f.frequency(f.weightAt(idxs[1]))) {
+                    minNumIdx = idxs[1];
+                    minNum = f.frequency(f.weightAt(idxs[1]));
+                }
+            }
+            return f.weightAt(minNumIdx);
+        }
+
+        @Override
+        public String toString() {
+            return "MinNumMidRemove";
+        }
+    }
+}
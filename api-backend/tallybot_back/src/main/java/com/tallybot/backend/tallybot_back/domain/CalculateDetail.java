@@ -12,8 +12,11 @@ import lombok.*;
 @Table(name = "calculate_detail")
 public class CalculateDetail {
 
+    // Settlement와 같은 id_allocation 테이블에서 묶음으로 받아 배치 insert한다.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "calculate_detail_id")
+    @TableGenerator(name = "calculate_detail_id", table = "id_allocation", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "calculate_detail", allocationSize = 500)
     @Column(name = "calculate_detail_id", nullable = false)
     private Long calculateDetailId;
 
@@ -1,5 +1,6 @@
 package com.tallybot.backend.tallybot_back.domain;
 
+import com.tallybot.backend.tallybot_back.util.ChatFingerprint;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -11,11 +12,15 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "chat")
+@Table(name = "chat", uniqueConstraints = @UniqueConstraint(name = "uk_chat_group_fingerprint",
+        columnNames = {"group_id", "fingerprint"}))
 public class Chat {
 
+    // 업로드 시 묶음 insert를 위해 id_allocation 테이블에서 ID를 미리 받아 둔다.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "chat_id")
+    @TableGenerator(name = "chat_id", table = "id_allocation", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "chat", allocationSize = 500)
     @Column(name = "chat_id", nullable = false)
     private Long chatId;
 
@@ -32,4 +37,19 @@ public class Chat {
 
     @Column(name = "message", nullable = false, columnDefinition = "MEDIUMTEXT")
     private String message;
+
+    // 같은 채팅의 재전송을 막는 값 (ChatFingerprint). 비어 있으면 저장 직전에 채운다.
+    @Column(name = "fingerprint", nullable = false, columnDefinition = "CHAR(16)")
+    private String fingerprint;
+
+    public Chat(Long chatId, UserGroup userGroup, LocalDateTime timestamp, Member member, String message) {
+        this(chatId, userGroup, timestamp, member, message, null);
+    }
+
+    @PrePersist
+    void fillFingerprint() {
+        if (fingerprint == null) {
+            fingerprint = ChatFingerprint.of(userGroup.getGroupId(), member.getMemberId(), timestamp, message);
+        }
+    }
 }
@@ -14,8 +14,11 @@ import java.util.Set;
 @Table(name = "settlement")
 public class Settlement {
 
+    // IDENTITY는 insert마다 키를 돌려받아야 해서 JDBC 배치가 꺼지므로, id_allocation 테이블에서 500개씩 받아 온다.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "settlement_id")
+    @TableGenerator(name = "settlement_id", table = "id_allocation", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "settlement", allocationSize = 500)
     @Column(name = "settlement_id", nullable = false)
     private Long settlementId; // 결제내역 식별 ID
 
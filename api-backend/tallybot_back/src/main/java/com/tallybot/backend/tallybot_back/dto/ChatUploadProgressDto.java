@@ -0,0 +1,19 @@
+package com.tallybot.backend.tallybot_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * 스트리밍 채팅 업로드 결과.
+ * committed: 배열 앞에서부터 저장이 끝난 원소 수 (실패 시 이 값을 offset으로 다시 보내면 이어서 저장)
+ * chunks: 이번 요청에서 저장한 chunk 수, error: 실패 사유 (성공이면 null)
+ * deduplicated: 이번 요청에서 이미 있는 채팅이라 건너뛴 수 (실패 응답에서는 0)
+ */
+@Getter
+@AllArgsConstructor
+public class ChatUploadProgressDto {
+    private long committed;
+    private int chunks;
+    private String error;
+    private long deduplicated;
+}
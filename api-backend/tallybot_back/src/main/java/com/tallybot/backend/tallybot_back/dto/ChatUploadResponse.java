@@ -0,0 +1,12 @@
+package com.tallybot.backend.tallybot_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 채팅 업로드 결과. deduplicated: 이미 저장된 채팅(재전송)이라 건너뛴 수
+@Getter
+@AllArgsConstructor
+public class ChatUploadResponse {
+    private String message;
+    private int deduplicated;
+}
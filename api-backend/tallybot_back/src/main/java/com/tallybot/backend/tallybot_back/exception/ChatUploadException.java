@@ -0,0 +1,16 @@
+package com.tallybot.backend.tallybot_back.exception;
+
+import lombok.Getter;
+
+// 스트리밍 채팅 업로드 실패. committed는 실패 전까지 저장된 원소 수 (재시도 시 offset), chunks는 이번 요청에서 저장한 chunk 수
+@Getter
+public class ChatUploadException extends RuntimeException {
+    private final long committed;
+    private final int chunks;
+
+    public ChatUploadException(String message, long committed, int chunks, Throwable cause) {
+        super(message, cause);
+        this.committed = committed;
+        this.chunks = chunks;
+    }
+}
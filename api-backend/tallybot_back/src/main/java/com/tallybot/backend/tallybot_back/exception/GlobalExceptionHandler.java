@@ -1,5 +1,7 @@
 package com.tallybot.backend.tallybot_back.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.tallybot.backend.tallybot_back.dto.ChatUploadProgressDto;
 import com.tallybot.backend.tallybot_back.dto.ErrorResponse;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
@@ -65,6 +67,26 @@ public class GlobalExceptionHandler {
 
 
 
+    // 스트리밍 업로드 실패: 원인에 따라 404/400/500, 본문에 이어서 보낼 위치(committed)를 담는다.
+    @ExceptionHandler(ChatUploadException.class)
+    public ResponseEntity<ChatUploadProgressDto> handleChatUploadException(ChatUploadException ex) {
+        Throwable cause = ex.getCause();
+        String message = ex.getMessage();
+        HttpStatus status;
+        if (cause instanceof IllegalArgumentException) {
+            status = message != null && message.toLowerCase().contains("not found")
+                    ? HttpStatus.NOT_FOUND
+                    : HttpStatus.BAD_REQUEST;
+        } else if (cause instanceof JsonProcessingException) {
+            status = HttpStatus.BAD_REQUEST;
+        } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            message = "Internal server error occurred.";
+        }
+        return ResponseEntity.status(status)
+                .body(new ChatUploadProgressDto(ex.getCommitted(), ex.getChunks(), message, 0));
+    }
+
     @ExceptionHandler(org.springframework.http.converter.HttpMessageNotReadableException.class)
     public ResponseEntity<ErrorResponse> handleJsonParseError(Exception ex) {
         return ResponseEntity.badRequest().body(
@@ -1,10 +1,13 @@
 package com.tallybot.backend.tallybot_back.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.tallybot.backend.tallybot_back.domain.Chat;
 import com.tallybot.backend.tallybot_back.domain.UserGroup;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 // Chat 엔티티를 위한 Repository
@@ -15,4 +18,10 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
     List<Chat> findByUserGroup_GroupIdOrderByTimestampAsc(Long groupId);
     List<Chat> findByUserGroup_GroupIdAndTimestampBetween(Long groupId, LocalDateTime start, LocalDateTime end);
     List<Chat> findByUserGroup_GroupId(Long groupId);
+
+    // 중복 판별: 그룹의 fingerprint 전체 (필터 적재용), 주어진 것 중 이미 있는 것
+    @Query("SELECT c.fingerprint FROM Chat c WHERE c.userGroup.groupId = :groupId")
+    List<String> findFingerprintsByGroupId(@Param("groupId") Long groupId);
+    @Query("SELECT c.fingerprint FROM Chat c WHERE c.userGroup.groupId = :groupId AND c.fingerprint IN :fingerprints")
+    List<String> findFingerprints(@Param("groupId") Long groupId, @Param("fingerprints") Collection<String> fingerprints);
 }
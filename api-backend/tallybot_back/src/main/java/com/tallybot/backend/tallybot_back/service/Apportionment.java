@@ -0,0 +1,127 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import java.util.Arrays;
+
+/*
+ * 정산 여러 건의 몫을 정수 연산만으로 한꺼번에 나눈다.
+ * 입력은 정산 순서대로 이어 붙인 참여자 배열이고, s번째 정산의 참여자는 [start[s], start[s + 1]) 구간이다.
+ *  - 몫 = 고정 금액 + (총액 - 고정 금액 합)을 비율대로 나눈 값
+ *  - 비율 몫은 내림한 뒤 남는 1원들을 나머지가 큰 참여자부터 하나씩 준다. (최대 나머지 방식, 같으면 앞 참여자 먼저)
+ * 비율 합이 0이 아니면 몫의 합은 항상 총액과 같다. 비율 합이 0이면 고정 금액만 몫으로 둔다.
+ */
+final class Apportionment {
+
+    private Apportionment() {
+    }
+
+    // shares[i]에 i번째 참여자의 몫을 채운다. 배열은 정산 수 + 1 (start), 참여자 수 (나머지) 크기여야 한다.
+    static void apportion(int[] amounts, int[] start, int[] constants, int[] numerators, int[] denominators,
+                          long[] shares) {
+        int settlements = amounts.length;
+        if (start.length != settlements + 1 || start[settlements] > shares.length) {
+            throw new IllegalArgumentException("정산/참여자 배열 크기가 맞지 않습니다.");
+        }
+
+        // 참여자별 나머지와, 남는 1원을 줄 기준을 찾을 정렬용 배열 (정산 사이에서 다시 쓴다)
+        long[] remainders = new long[start[settlements]];
+        long[] sorted = new long[maxParticipants(start)];
+
+        for (int s = 0; s < settlements; s++) {
+            int from = start[s];
+            int to = start[s + 1];
+            if (from == to) continue;
+
+            long remaining = amounts[s];
+            long lcm = 1;
+            for (int i = from; i < to; i++) {
+                if (denominators[i] <= 0) {
+                    throw new IllegalArgumentException("비율의 분모는 양수여야 합니다: " + denominators[i]);
+                }
+                remaining -= constants[i];
+                lcm = lcm(lcm, denominators[i]);
+            }
+
+            // 비율을 공통 분모 lcm 기준 정수 가중치로 바꾼다. (shares에 잠시 둔다)
+            long total = 0;
+            for (int i = from; i < to; i++) {
+                shares[i] = multiply(numerators[i], lcm / denominators[i]);
+                total = add(total, shares[i]);
+            }
+            if (total == 0) {
+                for (int i = from; i < to; i++) {
+                    shares[i] = constants[i];
+                }
+                continue;
+            }
+            long sign = Long.signum(total);
+            total *= sign;
+
+            long leftover = remaining;
+            for (int i = from; i < to; i++) {
+                long scaled = multiply(remaining, shares[i] * sign);
+                shares[i] = Math.floorDiv(scaled, total);
+                remainders[i] = Math.floorMod(scaled, total);
+                leftover -= shares[i];
+            }
+
+            // 0 <= leftover < 참여자 수. 나머지가 threshold보다 큰 참여자는 모두, 같은 참여자는 앞에서부터 받는다.
+            if (leftover > 0) {
+                int count = to - from;
+                System.arraycopy(remainders, from, sorted, 0, count);
+                Arrays.sort(sorted, 0, count);
+                long threshold = sorted[count - (int) leftover];
+                for (int i = from; i < to; i++) {
+                    if (remainders[i] > threshold) {
+                        shares[i]++;
+                        leftover--;
+                    }
+                }
+                for (int i = from; i < to && leftover > 0; i++) {
+                    if (remainders[i] == threshold) {
+                        shares[i]++;
+                        leftover--;
+                    }
+                }
+            }
+
+            for (int i = from; i < to; i++) {
+                shares[i] += constants[i];
+            }
+        }
+    }
+
+    private static int maxParticipants(int[] start) {
+        int max = 0;
+        for (int s = 0; s + 1 < start.length; s++) {
+            max = Math.max(max, start[s + 1] - start[s]);
+        }
+        return max;
+    }
+
+    private static long lcm(long a, long b) {
+        long x = a;
+        long y = b;
+        while (y != 0) {
+            long t = x % y;
+            x = y;
+            y = t;
+        }
+        return multiply(a / x, b);
+    }
+
+    private static long multiply(long a, long b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("정산 비율/금액이 너무 큽니다.", e);
+        }
+    }
+
+    private static long add(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("정산 비율/금액이 너무 큽니다.", e);
+        }
+    }
+}
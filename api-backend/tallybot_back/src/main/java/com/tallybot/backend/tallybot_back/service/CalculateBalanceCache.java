@@ -0,0 +1,168 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.domain.CalculateDetail;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/*
+ * 정산(Calculate)별 멤버 잔액 벡터 캐시.
+ * 전체 재계산 후 저장된 CalculateDetail로 잔액을 만들어 두고,
+ * 정산 내역이 추가/수정/삭제될 때마다 그 차이만 pending에 쌓는다.
+ * 재계산 시 pending만 반영하면 되므로 모든 Settlement를 다시 읽을 필요가 없다.
+ * 캐시는 인스턴스 메모리에만 있으며, 항목이 없으면 전체 재계산으로 돌아간다.
+ *
+ * 항목마다 generation을 두고 addDelta마다 올린다. 전체 재계산의 Loader는 시작할 때의 generation을 기억했다가
+ * done()에서 그 사이 변화가 들어왔으면 (전체 재계산이 읽은 정산에 들어 있는지 알 수 없으므로) 넣지 않고 무효로 둔다.
+ */
+@Component
+public class CalculateBalanceCache {
+
+    @Value("${optimizer.incremental.max-calculates:1000}")
+    private int maxCalculates = 1000;
+
+    private final Map<Long, Balances> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 전체 재계산 결과로 캐시를 새로 채운다.
+    public void put(Long calculateId, List<CalculateDetail> details) {
+        Loader loader = loader(calculateId);
+        for (CalculateDetail cd : details) {
+            loader.add(cd.getPayer().getMemberId(), cd.getPayee().getMemberId(), cd.getAmount());
+        }
+        loader.done();
+    }
+
+    /*
+     * 저장되는 송금을 하나씩 받아 잔액을 쌓고, done()에서 캐시에 넣는다.
+     * CalculateDetail 목록을 따로 들고 있지 않아도 되며, done() 전에는 캐시에 보이지 않는다.
+     * 전체 재계산이면 정산 내역을 읽기 전에 만들어야 그 사이 들어온 변화를 알아챈다.
+     */
+    public synchronized Loader loader(Long calculateId) {
+        Balances entry = cache.get(calculateId);
+        if (entry == null) {
+            // 아직 캐시가 없어도 그 사이의 addDelta를 세도록 무효 항목을 둔다.
+            entry = new Balances();
+            entry.valid = false;
+            cache.put(calculateId, entry);
+            evict();
+        }
+        return new Loader(calculateId, entry, entry.generation);
+    }
+
+    private synchronized void install(Loader loader) {
+        Balances entry = cache.get(loader.calculateId);
+        if (entry != loader.entry || entry.generation != loader.generation) {
+            // 시작한 뒤 변화가 들어왔거나 밀려났으면 넣지 않는다.
+            if (entry != null) entry.valid = false;
+            return;
+        }
+        loader.b.generation = entry.generation;
+        cache.put(loader.calculateId, loader.b);
+    }
+
+    private void evict() {
+        while (cache.size() > maxCalculates) {
+            Iterator<Long> it = cache.keySet().iterator();
+            it.next();
+            it.remove();
+        }
+    }
+
+    public final class Loader {
+        private final Long calculateId;
+        private final Balances entry;
+        private final long generation;
+        private final Balances b = new Balances();
+
+        private Loader(Long calculateId, Balances entry, long generation) {
+            this.calculateId = calculateId;
+            this.entry = entry;
+            this.generation = generation;
+        }
+
+        public void add(Long payerId, Long payeeId, int amount) {
+            int from = b.indexOf(payerId);
+            int to = b.indexOf(payeeId);
+            b.balances[from] -= amount;
+            b.balances[to] += amount;
+        }
+
+        public void done() {
+            install(this);
+        }
+    }
+
+    // 캐시된 정산이면 잔액 변화(memberId -> 금액)를 쌓고 true, 아니면 false
+    public synchronized boolean addDelta(Long calculateId, Map<Long, Integer> delta) {
+        Balances b = cache.get(calculateId);
+        if (b == null) return false;
+        b.generation++;
+        if (!b.valid) return false;
+        for (Map.Entry<Long, Integer> e : delta.entrySet()) {
+            if (e.getValue() == 0) continue;
+            b.pending[b.indexOf(e.getKey())] += e.getValue();
+            b.hasPending = true;
+        }
+        return true;
+    }
+
+    // 반영할 변화가 있을 때만 현재 상태의 사본을 돌려준다.
+    public synchronized Optional<Snapshot> pending(Long calculateId) {
+        Balances b = cache.get(calculateId);
+        if (b == null || !b.valid || !b.hasPending) return Optional.empty();
+        return Optional.of(new Snapshot(new HashMap<>(b.index), new ArrayList<>(b.memberIds),
+                Arrays.copyOf(b.balances, b.memberIds.size()), Arrays.copyOf(b.pending, b.memberIds.size())));
+    }
+
+    // snapshot의 pending이 저장되었으면 잔액에 더한다. 그 사이 쌓인 변화는 남긴다.
+    public synchronized void commit(Long calculateId, Snapshot snapshot) {
+        Balances b = cache.get(calculateId);
+        if (b == null || !b.valid) return;
+        boolean left = false;
+        for (int i = 0; i < b.memberIds.size(); i++) {
+            int applied = i < snapshot.pending().length ? snapshot.pending()[i] : 0;
+            b.balances[i] += applied;
+            b.pending[i] -= applied;
+            left |= b.pending[i] != 0;
+        }
+        b.hasPending = left;
+    }
+
+    // 항목은 남겨 generation을 이어 가므로, 이미 시작한 Loader는 그대로 쓸 수 있다.
+    public synchronized void invalidate(Long calculateId) {
+        Balances b = cache.get(calculateId);
+        if (b != null) b.valid = false;
+    }
+
+    /*
+     * index: memberId -> 잔액 벡터 위치, memberIds: 위치 -> memberId
+     * balances: 저장된 송금 기준 잔액 (+ 받을 돈), pending: 아직 반영하지 않은 변화
+     */
+    public record Snapshot(Map<Long, Integer> index, List<Long> memberIds, int[] balances, int[] pending) {
+    }
+
+    private static final class Balances {
+        final Map<Long, Integer> index = new HashMap<>();
+        final List<Long> memberIds = new ArrayList<>();
+        int[] balances = new int[8];
+        int[] pending = new int[8];
+        boolean hasPending;
+        boolean valid = true;
+        long generation;
+
+        int indexOf(Long memberId) {
+            Integer idx = index.get(memberId);
+            if (idx != null) return idx;
+
+            idx = memberIds.size();
+            index.put(memberId, idx);
+            memberIds.add(memberId);
+            if (idx == balances.length) {
+                balances = Arrays.copyOf(balances, idx * 2);
+                pending = Arrays.copyOf(pending, idx * 2);
+            }
+            return idx;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.domain.CalculateDetail;
+import com.tallybot.backend.tallybot_back.domain.Participant;
+import com.tallybot.backend.tallybot_back.domain.Settlement;
+import com.tallybot.backend.tallybot_back.repository.SettlementRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/*
+ * GPT가 뽑은 정산 내역과 그 최적화 결과(CalculateDetail)를 한 트랜잭션으로 저장한다.
+ * 최적화(OptimizationService.optimizeDetails)는 트랜잭션을 열기 전에 끝내 두고, 여기서는 insert만 한다.
+ * (CalculateDetail은 Settlement ID가 아니라 Calculate를 가리키므로 먼저 계산해도 된다)
+ *  - Settlement / CalculateDetail ID는 테이블(id_allocation)에서 묶음으로 받아 오므로 insert마다 키를 돌려받지 않는다.
+ *  - Participant는 Settlement의 cascade로 persist되어 save(merge)처럼 행마다 select하지 않는다.
+ *  - insert는 hibernate.jdbc.batch_size씩 모아 보내고, MySQL은 rewriteBatchedStatements로 한 문장으로 합친다.
+ * 중간에 실패하면 정산 내역과 송금이 함께 롤백된다.
+ */
+@Service
+@RequiredArgsConstructor
+public class CalculateResultService {
+
+    private final SettlementRepository settlementRepository;
+    private final OptimizationService optimizationService;
+
+    private static final Logger logger = LoggerFactory.getLogger(CalculateResultService.class);
+
+    @Transactional
+    public void save(List<Settlement> settlements, List<CalculateDetail> details) {
+        int participants = 0;
+        for (Settlement settlement : settlements) {
+            if (settlement.getParticipants() == null) continue;
+            for (Participant participant : settlement.getParticipants()) {
+                participant.getParticipantKey().setSettlement(settlement);
+                participants++;
+            }
+        }
+        settlementRepository.saveAll(settlements);
+
+        optimizationService.saveDetails(settlements.get(0).getCalculate(), details);
+        logger.info("🍀 정산 결과 저장: 정산 {}건, 참여자 {}명, 송금 {}건", settlements.size(), participants, details.size());
+    }
+}
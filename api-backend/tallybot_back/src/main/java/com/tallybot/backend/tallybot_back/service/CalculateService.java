@@ -34,9 +34,10 @@ public class CalculateService {
     private final CalculateDetailRepository calculateDetailRepository;
     private final SettlementRepository settlementRepository;
     private final SettlementService settlementService;
-    private final ParticipantRepository participantRepository;
     private final OptimizationService optimizationService;
+    private final IncrementalOptimizationService incrementalOptimizationService;
     private final MemberRepository memberRepository;
+    private final CalculateResultService calculateResultService;
 
     private static final Logger logger = LoggerFactory.getLogger(CalculateService.class);
 
@@ -208,16 +209,9 @@ public class CalculateService {
 
                 List<Settlement> settlements = settlementService.toSettlements(results, finalCalculateId);
 
-
-                for (Settlement settlement : settlements) {
-                    Settlement savedSettlement = settlementRepository.save(settlement);
-                    for (Participant participant : settlement.getParticipants()) {
-                        participant.getParticipantKey().setSettlement(savedSettlement);
-                        participantRepository.save(participant);
-                    }
-                }
-
-                calculateAndOptimize(settlements);
+                // 최적화는 트랜잭션 밖에서 끝내고, 정산 내역, 참여자, 송금 insert만 한 트랜잭션으로 묶는다.
+                List<CalculateDetail> details = optimizationService.optimizeDetails(settlements);
+                calculateResultService.save(settlements, details);
                 pendingCalculate(calculateId);
 
             } catch (NoSettlementResultException ex) {
@@ -246,19 +240,24 @@ public class CalculateService {
 
     @Transactional
     public void recalculate(Long calculateId) {
+        // 정산 내역을 읽기 전에 시작해야 그 사이 바뀐 정산을 알아챈다.
+        CalculateBalanceCache.Loader cacheLoader = optimizationService.balanceLoader(calculateId);
         Calculate calculate = calculateRepository.findById(calculateId)
                 .orElseThrow(() -> new IllegalArgumentException("계산 ID 존재하지 않음"));
 
-        // 1. 기존 CalculateDetail 삭제
-        calculateDetailRepository.deleteByCalculate(calculate);
+        // 0. 마지막 계산 이후 바뀐 정산 내역만 반영할 수 있으면 증분 재최적화로 끝낸다.
+        if (!incrementalOptimizationService.reoptimize(calculate)) {
+            // 1. 기존 CalculateDetail 삭제
+            calculateDetailRepository.deleteByCalculate(calculate);
 
-        // 2. Settlement는 유지하고, 내부 계산만 다시 진행
-//        List<Settlement> settlementList = settlementRepository.findByCalculate(calculate);
-        List<Settlement> settlementList = settlementRepository.findByCalculateWithParticipants(calculate);
+            // 2. Settlement는 유지하고, 내부 계산만 다시 진행
+//            List<Settlement> settlementList = settlementRepository.findByCalculate(calculate);
+            List<Settlement> settlementList = settlementRepository.findByCalculateWithParticipants(calculate);
 
 
-        // 3. Participants의 ratio & constant 정보를 바탕으로 계산 수행
-        calculateAndOptimize(settlementList);  // 내부적으로 그래프 재생성 포함
+            // 3. Participants의 ratio & constant 정보를 바탕으로 계산 수행
+            optimizationService.calculateAndOptimize(settlementList, cacheLoader);  // 내부적으로 그래프 재생성 포함
+        }
 
         // 4. 상태 초기화
         calculate.setStatus(CalculateStatus.PENDING);
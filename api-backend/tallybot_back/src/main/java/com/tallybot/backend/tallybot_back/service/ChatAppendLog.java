@@ -0,0 +1,382 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.dto.ChatDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/*
+ * 비동기 채팅 수집(ChatIngestService)용 로컬 추가 전용 로그.
+ *  - 세그먼트 파일(chat-<첫 seq>.log)을 segmentBytes 크기로 메모리 매핑해 기록을 이어 붙이고, 차면 새 세그먼트로 넘어간다.
+ *  - 기록 한 건: 길이(int) | seq | groupId | memberId | timestamp(epoch초, 나노초) | 메시지 길이, 메시지(UTF-8) | CRC32
+ *  - sync(seq)는 그 사이 여러 스레드가 붙인 기록을 force 한 번으로 디스크에 내린다. (group fsync)
+ *  - checkpoint는 DB 반영이 끝난 마지막 seq. 그 이하 기록만 담긴 세그먼트는 지운다.
+ *  - 다시 열 때 CRC가 맞지 않거나 seq가 이어지지 않는 곳부터는 버린다. (fsync 전에 끊긴 꼬리)
+ */
+public class ChatAppendLog implements AutoCloseable {
+    private static final String PREFIX = "chat-";
+    private static final String SUFFIX = ".log";
+    private static final int LENGTH = 4;
+    private static final int FIXED = 8 + 8 + 8 + 8 + 4 + 4; // seq, groupId, memberId, epoch초, 나노초, 메시지 길이
+    private static final int CRC = 4;
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatAppendLog.class);
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>(); // 첫 seq -> 세그먼트
+    private final FileChannel checkpointChannel;
+    private final Object syncLock = new Object();
+
+    private Segment active;
+    private long lastSeq;
+    private volatile long durableSeq;
+    private volatile long checkpoint;
+
+    // 다음 read가 이어서 읽을 위치 (flusher는 보통 직전에 읽은 곳부터 다시 읽는다)
+    private long hintSeq = -1;
+    private Segment hintSegment;
+    private int hintPos;
+
+    public ChatAppendLog(Path dir, int segmentBytes) {
+        if (segmentBytes < 1024) {
+            throw new IllegalArgumentException("segmentBytes는 1024 이상이어야 합니다.");
+        }
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(dir);
+            checkpointChannel = FileChannel.open(dir.resolve("checkpoint"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            checkpoint = readCheckpoint();
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Entry(long seq, ChatDto chat) {
+    }
+
+    // 채팅들을 붙이고 마지막 seq를 돌려준다. 디스크에 내려간 것은 sync 이후다.
+    public synchronized long append(List<ChatDto> chats) {
+        List<byte[]> messages = new ArrayList<>(chats.size());
+        for (ChatDto chat : chats) {
+            byte[] message = chat.getMessage().getBytes(StandardCharsets.UTF_8);
+            if (recordSize(message.length) + LENGTH > segmentBytes) {
+                throw new IllegalArgumentException("Message too large: " + message.length + " bytes");
+            }
+            messages.add(message);
+        }
+
+        try {
+            for (int i = 0; i < chats.size(); i++) {
+                byte[] message = messages.get(i);
+                int size = recordSize(message.length);
+                // 세그먼트 끝에는 길이 0(끝 표시)이 들어갈 자리를 남긴다.
+                if (active == null || active.pos + size + LENGTH > active.buffer.capacity()) {
+                    roll(lastSeq + 1);
+                }
+                write(active.buffer, active.pos, ++lastSeq, chats.get(i), message);
+                active.pos += size;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lastSeq;
+    }
+
+    /*
+     * seq까지 디스크에 내린다. 먼저 force 중인 스레드가 있으면 기다렸다가,
+     * 그 force가 seq를 덮었으면 바로 돌아온다. (한 번의 force로 여러 요청을 처리)
+     */
+    public void sync(long seq) {
+        if (durableSeq >= seq) return;
+        synchronized (syncLock) {
+            if (durableSeq >= seq) return;
+
+            Segment segment;
+            int from;
+            int to;
+            long target;
+            synchronized (this) {
+                segment = active;
+                target = lastSeq;
+                from = segment == null ? 0 : segment.syncedPos;
+                to = segment == null ? 0 : segment.pos;
+            }
+            if (segment != null && to > from) {
+                segment.buffer.force(from, to - from);
+                segment.syncedPos = to;
+            }
+            durableSeq = target;
+        }
+    }
+
+    public long appendAndSync(List<ChatDto> chats) {
+        long seq = append(chats);
+        sync(seq);
+        return seq;
+    }
+
+    // afterSeq 다음부터 디스크에 내려간 기록을 최대 max건 읽는다.
+    public synchronized List<Entry> read(long afterSeq, int max) {
+        List<Entry> res = new ArrayList<>();
+        long limit = durableSeq;
+        if (segments.isEmpty() || afterSeq >= limit) return res;
+
+        Segment segment;
+        int pos;
+        if (afterSeq == hintSeq && hintSegment != null) {
+            segment = hintSegment;
+            pos = hintPos;
+        } else {
+            Map.Entry<Long, Segment> e = segments.floorEntry(afterSeq + 1);
+            segment = e != null ? e.getValue() : segments.firstEntry().getValue();
+            pos = 0;
+        }
+
+        ByteBuffer buf = segment.buffer.duplicate();
+        while (res.size() < max) {
+            if (pos >= segment.pos) {
+                Map.Entry<Long, Segment> next = segments.higherEntry(segment.firstSeq);
+                if (next == null) break;
+                segment = next.getValue();
+                buf = segment.buffer.duplicate();
+                pos = 0;
+                continue;
+            }
+            long seq = buf.getLong(pos + LENGTH);
+            if (seq > limit) break;
+            int len = buf.getInt(pos);
+            if (seq > afterSeq) {
+                res.add(new Entry(seq, decode(buf, pos)));
+            }
+            pos += LENGTH + len + CRC;
+        }
+
+        if (!res.isEmpty()) {
+            hintSeq = res.get(res.size() - 1).seq();
+            hintSegment = segment;
+            hintPos = pos;
+        }
+        return res;
+    }
+
+    // seq까지 DB에 반영되었음을 기록하고, 그 이하 기록만 담긴 세그먼트를 지운다.
+    public synchronized void checkpoint(long seq) {
+        if (seq <= checkpoint) return;
+        try {
+            ByteBuffer buf = ByteBuffer.allocate(8).putLong(0, seq);
+            checkpointChannel.write(buf, 0);
+            checkpointChannel.force(false);
+            checkpoint = seq;
+
+            Iterator<Map.Entry<Long, Segment>> it = segments.entrySet().iterator();
+            while (it.hasNext()) {
+                Segment segment = it.next().getValue();
+                Map.Entry<Long, Segment> next = segments.higherEntry(segment.firstSeq);
+                if (segment == active || next == null || next.getKey() - 1 > seq) break;
+                it.remove();
+                Files.deleteIfExists(segment.file);
+                if (hintSegment == segment) {
+                    hintSegment = null;
+                    hintSeq = -1;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long checkpoint() {
+        return checkpoint;
+    }
+
+    public long durableSeq() {
+        return durableSeq;
+    }
+
+    public synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (active != null) {
+                active.buffer.force();
+            }
+            checkpointChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int recordSize(int messageBytes) {
+        return LENGTH + FIXED + messageBytes + CRC;
+    }
+
+    private static void write(ByteBuffer buf, int pos, long seq, ChatDto chat, byte[] message) {
+        int len = FIXED + message.length;
+        LocalDateTime timestamp = chat.getTimestamp();
+        buf.putInt(pos, len);
+        buf.putLong(pos + 4, seq);
+        buf.putLong(pos + 12, chat.getGroupId());
+        buf.putLong(pos + 20, chat.getMemberId());
+        buf.putLong(pos + 28, timestamp.toEpochSecond(ZoneOffset.UTC));
+        buf.putInt(pos + 36, timestamp.getNano());
+        buf.putInt(pos + 40, message.length);
+        buf.put(pos + 44, message);
+        buf.putInt(pos + LENGTH + len, crc(buf, pos, len));
+    }
+
+    private static ChatDto decode(ByteBuffer buf, int pos) {
+        byte[] message = new byte[buf.getInt(pos + 40)];
+        buf.get(pos + 44, message);
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(buf.getLong(pos + 28), buf.getInt(pos + 36), ZoneOffset.UTC);
+        return new ChatDto(buf.getLong(pos + 12), timestamp, buf.getLong(pos + 20),
+                new String(message, StandardCharsets.UTF_8));
+    }
+
+    private static int crc(ByteBuffer buf, int pos, int len) {
+        CRC32 crc = new CRC32();
+        crc.update(buf.slice(pos + LENGTH, len));
+        return (int) crc.getValue();
+    }
+
+    private void roll(long firstSeq) throws IOException {
+        // 이전 세그먼트는 통째로 내려 두어 sync가 활성 세그먼트만 보면 되게 한다.
+        if (active != null) {
+            active.buffer.force();
+            active.syncedPos = active.pos;
+        }
+        Path file = dir.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            active = new Segment(firstSeq, file, ch.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+        }
+        segments.put(firstSeq, active);
+        forceDirectory();
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        }
+
+        long expected = -1;
+        boolean broken = false;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long firstSeq = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+            if (broken || (expected != -1 && firstSeq != expected)) {
+                logger.warn("채팅 수집 로그: 이어지지 않는 세그먼트 삭제 {}", file);
+                Files.delete(file);
+                broken = true;
+                continue;
+            }
+
+            Segment segment;
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = new Segment(firstSeq, file, ch.map(FileChannel.MapMode.READ_WRITE, 0, ch.size()));
+            }
+            long seq = scan(segment);
+            segments.put(firstSeq, segment);
+            expected = seq;
+            // 세그먼트가 차기 전에 끊겼으면 여기가 로그의 끝이다.
+            broken = segment.pos + LENGTH <= segment.buffer.capacity()
+                    && segment.buffer.getInt(segment.pos) != 0;
+            if (broken) {
+                logger.warn("채팅 수집 로그: {}의 {}바이트 이후 손상된 꼬리 버림 (seq {}까지 복구)",
+                        file, segment.pos, seq - 1);
+            }
+        }
+
+        if (!segments.isEmpty()) {
+            active = segments.lastEntry().getValue();
+            // 끊긴 꼬리의 남은 바이트가 나중에 기록처럼 읽히지 않게 지운다.
+            ByteBuffer buf = active.buffer;
+            for (int i = active.pos; i < buf.capacity(); i++) {
+                buf.put(i, (byte) 0);
+            }
+            active.buffer.force();
+            active.syncedPos = active.pos;
+            lastSeq = Math.max(expected - 1, checkpoint);
+        } else {
+            lastSeq = checkpoint;
+        }
+        durableSeq = lastSeq;
+    }
+
+    // 세그먼트 앞에서부터 온전한 기록을 따라가며 끝 위치를 정하고, 다음에 올 seq를 돌려준다.
+    private static long scan(Segment segment) {
+        ByteBuffer buf = segment.buffer;
+        int pos = 0;
+        long seq = segment.firstSeq;
+        while (pos + LENGTH <= buf.capacity()) {
+            int len = buf.getInt(pos);
+            if (len < FIXED || (long) pos + LENGTH + len + CRC > buf.capacity()) break;
+            if (buf.getLong(pos + LENGTH) != seq) break;
+            if (buf.getInt(pos + 40) != len - FIXED) break;
+            if (buf.getInt(pos + LENGTH + len) != crc(buf, pos, len)) break;
+            pos += LENGTH + len + CRC;
+            seq++;
+        }
+        segment.pos = pos;
+        return seq;
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (checkpointChannel.size() < 8) return 0;
+        ByteBuffer buf = ByteBuffer.allocate(8);
+        while (buf.hasRemaining() && checkpointChannel.read(buf, buf.position()) > 0) {
+        }
+        return buf.getLong(0);
+    }
+
+    // 새 세그먼트 파일의 디렉터리 항목도 디스크에 내린다. (지원하지 않는 OS면 건너뜀)
+    private void forceDirectory() {
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException e) {
+            logger.debug("채팅 수집 로그: 디렉터리 fsync 건너뜀 ({})", e.toString());
+        }
+    }
+
+    private static final class Segment {
+        final long firstSeq;
+        final Path file;
+        final MappedByteBuffer buffer;
+        int pos;        // 다음 기록을 쓸 위치 (앞은 모두 온전한 기록)
+        int syncedPos;  // 여기까지 force됨
+
+        Segment(long firstSeq, Path file, MappedByteBuffer buffer) {
+            this.firstSeq = firstSeq;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.util.ChatFingerprint;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * 저장된 채팅 fingerprint의 Bloom filter. (ChatService.saveChats의 중복 판별)
+ *  - 그룹마다 처음 한 번 DB의 fingerprint를 모두 올린 뒤(markLoaded), 새로 저장한 것을 put한다.
+ *  - mightContain이 false면 확실히 DB에 없으므로 조회 없이 insert하고, true인 것만 DB에서 확인한다.
+ *  - 다른 서버가 넣은 채팅처럼 필터가 모르는 중복은 chat의 unique 인덱스가 막는다.
+ * 비트 배열은 AtomicLongArray라 잠금 없이 함께 쓴다. 지우지 않으므로 expectedChats를 넘기면 오탐률만 오른다.
+ */
+public class ChatFingerprintFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashes;
+    private final Set<Long> loadedGroups = ConcurrentHashMap.newKeySet();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+
+    public ChatFingerprintFilter(long expectedChats, double falsePositiveRate) {
+        if (expectedChats <= 0) {
+            throw new IllegalArgumentException("expectedChats는 1 이상이어야 합니다.");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate는 0과 1 사이여야 합니다.");
+        }
+        // 최적 비트 수 m = -n ln p / (ln 2)^2, 해시 수 k = m/n ln 2
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-expectedChats * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashes = Math.max(1, (int) Math.round((double) bitCount / expectedChats * ln2));
+    }
+
+    public boolean mightContain(String fingerprint) {
+        long h = ChatFingerprint.toLong(fingerprint);
+        for (int i = 0; i < hashes; i++) {
+            long index = index(h, i);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                negatives.increment();
+                return false;
+            }
+        }
+        positives.increment();
+        return true;
+    }
+
+    public void put(String fingerprint) {
+        long h = ChatFingerprint.toLong(fingerprint);
+        for (int i = 0; i < hashes; i++) {
+            long index = index(h, i);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long cur;
+            while (((cur = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, cur, cur | mask)) {
+            }
+        }
+    }
+
+    public boolean isLoaded(Long groupId) {
+        return loadedGroups.contains(groupId);
+    }
+
+    public void markLoaded(Long groupId) {
+        loadedGroups.add(groupId);
+    }
+
+    public int hashes() {
+        return hashes;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    // 확실히 없다고 답한 수
+    public long negatives() {
+        return negatives.sum();
+    }
+
+    // 있을 수도 있다고 답한 수 (DB 확인으로 넘어간 수)
+    public long positives() {
+        return positives.sum();
+    }
+
+    // fingerprint는 SHA-256 조각이라 고르게 퍼져 있으므로 두 반쪽으로 이중 해싱한다.
+    private long index(long h, int i) {
+        long h1 = h & 0xffffffffL;
+        long h2 = h >>> 32;
+        return Math.floorMod(h1 + i * h2, bitCount);
+    }
+}
@@ -0,0 +1,237 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.dto.ChatDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * 채팅 비동기 수집 (write-behind).
+ *  - accept: 채팅을 ChatAppendLog에 붙이고 fsync까지 기다린 뒤 돌아온다. 여기서 202로 응답한다.
+ *  - flusher 스레드가 flushInterval마다 (또는 batchSize만큼 쌓이면) 로그를 batchSize개씩 ChatService.saveChats로 DB에 옮기고 checkpoint를 올린다.
+ *  - flush(): 호출 시점까지 응답한 채팅을 모두 DB에 옮긴 뒤 돌아온다. 정산 트랜잭션을 열기 전에 호출한다. (flushTimeout까지 기다림)
+ * DB 저장은 항상 flusher 스레드에서 하므로 호출한 쪽의 트랜잭션에 섞이지 않는다.
+ * 저장 후 checkpoint 전에 죽으면 재시작 후 그 배치를 다시 넣는다. (at-least-once, 다시 넣은 채팅은 saveChats의 중복 판별로 걸러진다)
+ *
+ * 배치 저장이 실패하면 flushInterval부터 두 배씩 늘려 다시 시도한다. maxAttempts번 실패하면 한 건씩 저장해 보고,
+ * 실패한 건은 rejected 로그로 옮기고 넘어간다. 한 건도 저장되지 않으면 DB 장애로 보고 옮기지 않는다.
+ */
+public class ChatIngestService implements AutoCloseable {
+
+    // chat.message는 MEDIUMTEXT라 이보다 긴 메시지는 DB에 들어가지 않는다.
+    public static final int MAX_MESSAGE_BYTES = (1 << 24) - 1;
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(1);
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatIngestService.class);
+
+    private static final ChatIngestService DISABLED = new ChatIngestService();
+
+    private final ChatAppendLog log;
+    private final ChatAppendLog rejected;
+    private final ChatService chatService;
+    private final int batchSize;
+    private final long intervalMs;
+    private final Duration flushTimeout;
+    private final int maxAttempts;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+
+    // flusher 스레드에서만 바뀐다.
+    private int attempts;
+    private long retryAt;
+
+    public ChatIngestService(ChatAppendLog log, ChatAppendLog rejected, ChatService chatService, int batchSize,
+                             Duration flushInterval, Duration flushTimeout, int maxAttempts) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다.");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts는 1 이상이어야 합니다.");
+        }
+        this.log = log;
+        this.rejected = rejected;
+        this.chatService = chatService;
+        this.batchSize = batchSize;
+        this.intervalMs = Math.max(1, flushInterval.toMillis());
+        this.flushTimeout = flushTimeout;
+        this.maxAttempts = maxAttempts;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "chat-ingest-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        // 재시작 직후 남아 있던 기록도 첫 주기에 옮긴다.
+        flusher.scheduleWithFixedDelay(this::drainQuietly, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private ChatIngestService() {
+        this.log = null;
+        this.rejected = null;
+        this.chatService = null;
+        this.batchSize = 0;
+        this.intervalMs = 0;
+        this.flushTimeout = null;
+        this.maxAttempts = 0;
+        this.flusher = null;
+    }
+
+    public static ChatIngestService disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return log != null;
+    }
+
+    // 디스크에 내려간 뒤 seq를 돌려준다.
+    public long accept(List<ChatDto> chats) {
+        for (ChatDto chat : chats) {
+            if (chat.getMessage() != null && chat.getMessage().getBytes(StandardCharsets.UTF_8).length > MAX_MESSAGE_BYTES) {
+                throw new IllegalArgumentException("Message too large");
+            }
+        }
+        long seq = log.appendAndSync(chats);
+        // 쌓인 양으로 앞당기는 drain은 한 번에 하나만 대기열에 둔다.
+        if (seq - log.checkpoint() >= batchSize && drainQueued.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                drainQueued.set(false);
+                drainQuietly();
+            });
+        }
+        return seq;
+    }
+
+    // 지금까지 응답한 채팅을 모두 DB에 옮긴다. 꺼져 있으면 아무 것도 하지 않는다.
+    public void flush() {
+        if (!isEnabled()) return;
+
+        long target = log.durableSeq();
+        if (log.checkpoint() >= target) return;
+        try {
+            flusher.submit(() -> drain(target)).get(flushTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Chat flush interrupted", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Chat flush timed out (pending " + pending() + ")", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Chat flush failed", e.getCause());
+        }
+    }
+
+    // DB에 아직 옮기지 않은 채팅 수
+    public long pending() {
+        return isEnabled() ? log.durableSeq() - log.checkpoint() : 0;
+    }
+
+    // rejected 로그로 옮긴 채팅 수
+    public long rejectedCount() {
+        return isEnabled() ? rejected.durableSeq() : 0;
+    }
+
+    @Override
+    public void close() {
+        if (!isEnabled()) return;
+
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+        rejected.close();
+    }
+
+    private void drainQuietly() {
+        // 실패 후 대기 중이면 건너뛴다. (flush()는 기다리지 않고 바로 시도)
+        if (attempts > 0 && System.nanoTime() - retryAt < 0) return;
+        try {
+            drain(log.durableSeq());
+        } catch (RuntimeException e) {
+            logger.error("❌ 채팅 수집 로그 반영 실패 {}회 (checkpoint {}, 대기 {}건): {}",
+                    attempts, log.checkpoint(), pending(), e.getMessage());
+        }
+    }
+
+    private void drain(long upTo) {
+        while (log.checkpoint() < upTo) {
+            List<ChatAppendLog.Entry> batch = log.read(log.checkpoint(), batchSize);
+            if (batch.isEmpty()) break;
+
+            try {
+                save(batch, attempts + 1 >= maxAttempts);
+            } catch (RuntimeException e) {
+                attempts++;
+                long backoff = Math.min(MAX_BACKOFF.toMillis(), intervalMs << Math.min(attempts, 20));
+                retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff);
+                throw e;
+            }
+            attempts = 0;
+            log.checkpoint(batch.get(batch.size() - 1).seq());
+        }
+    }
+
+    /*
+     * 그룹/멤버가 accept 뒤 지워졌으면 배치 전체가 IllegalArgumentException으로 실패하므로 바로 한 건씩 저장한다.
+     * 그 외 예외는 isolate(maxAttempts번째 시도)일 때만 한 건씩 저장해 실패한 건을 rejected로 옮긴다.
+     */
+    private void save(List<ChatAppendLog.Entry> batch, boolean isolate) {
+        try {
+            chatService.saveChats(batch.stream().map(ChatAppendLog.Entry::chat).toList());
+        } catch (IllegalArgumentException e) {
+            saveEach(batch, isolate);
+        } catch (RuntimeException e) {
+            if (!isolate) throw e;
+            saveEach(batch, true);
+        }
+    }
+
+    private void saveEach(List<ChatAppendLog.Entry> batch, boolean isolate) {
+        List<ChatAppendLog.Entry> failed = new ArrayList<>();
+        List<String> reasons = new ArrayList<>();
+        RuntimeException error = null;
+        int saved = 0;
+        int invalid = 0;
+        for (ChatAppendLog.Entry entry : batch) {
+            try {
+                chatService.saveChats(List.of(entry.chat()));
+                saved++;
+            } catch (IllegalArgumentException e) {
+                failed.add(entry);
+                reasons.add(e.getMessage());
+                invalid++;
+            } catch (RuntimeException e) {
+                // 앞서 한 건씩 저장한 채팅은 다시 시도할 때 중복 판별로 걸러진다.
+                if (!isolate) throw e;
+                failed.add(entry);
+                reasons.add(e.getMessage());
+                error = e;
+            }
+        }
+        // 여러 건 중 한 건도 저장되지 않았고 잘못된 데이터도 없으면 DB 장애로 보고 옮기지 않는다.
+        if (error != null && saved == 0 && invalid == 0 && batch.size() > 1) {
+            throw error;
+        }
+        if (failed.isEmpty()) return;
+
+        rejected.appendAndSync(failed.stream().map(ChatAppendLog.Entry::chat).toList());
+        for (int i = 0; i < failed.size(); i++) {
+            ChatAppendLog.Entry entry = failed.get(i);
+            logger.warn("채팅 수집 로그: seq {} rejected로 옮김 (groupId={}, memberId={}): {}", entry.seq(),
+                    entry.chat().getGroupId(), entry.chat().getMemberId(), reasons.get(i));
+        }
+    }
+}
@@ -7,12 +7,14 @@ import com.tallybot.backend.tallybot_back.dto.ChatDto;
 import com.tallybot.backend.tallybot_back.dto.ChatForGptDto;
 import com.tallybot.backend.tallybot_back.dto.ChatResponseDto;
 import com.tallybot.backend.tallybot_back.repository.*;
+import com.tallybot.backend.tallybot_back.util.ChatFingerprint;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 
@@ -23,12 +25,26 @@ public class ChatService {
     private final GroupRepository groupRepository;
     private final MemberRepository memberRepository;
     private final ChatRepository chatRepository;
+    private final ChatFingerprintFilter fingerprintFilter;
     private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
 
+    // 채팅을 이 개수씩 묶어 saveAll한다. (hibernate.jdbc.batch_size와 맞춤)
+    @Value("${chat.upload.batch-size:500}")
+    private int uploadBatchSize = 500;
+
+    /*
+     * 채팅에 나온 그룹/멤버 id를 모아 각각 IN 쿼리 한 번으로 조회하고,
+     * 멤버가 채팅의 그룹에 속하는지는 메모리에서 확인한다. (채팅 수와 무관하게 쿼리 2번)
+     */
     public boolean groupAndMembersExist(List<ChatDto> chatDtos) {
+        if (chatDtos.isEmpty()) return true;
+
+        Map<Long, UserGroup> groups = findGroups(chatDtos);
+        Map<Long, Member> members = findMembers(chatDtos);
         for (ChatDto chat : chatDtos) {
-            if (!groupRepository.existsById(chat.getGroupId()) ||
-                    !memberRepository.existsById(chat.getMemberId())) {
+            Member member = members.get(chat.getMemberId());
+            if (!groups.containsKey(chat.getGroupId()) || member == null
+                    || !isMemberOf(member, chat.getGroupId())) {
                 return false;
             }
         }
@@ -43,26 +59,125 @@ public class ChatService {
     }
 
 
-    public void saveChats(List<ChatDto> dtoList) {
-        logger.info("🍀채팅 저장 완료");
-        List<Chat> chatList = new ArrayList<>();
+    /*
+     * 그룹/멤버를 IN 쿼리로 한 번에 조회해 Chat을 만들고, uploadBatchSize개씩 나눠 저장한다.
+     * Chat ID는 id_allocation 테이블에서 묶음으로 받으므로 묶음마다 JDBC 배치 insert 한 번이다.
+     * 같은 채팅(ChatFingerprint)이 요청 안이나 DB에 이미 있으면 건너뛰고, 건너뛴 수를 돌려준다.
+     */
+    public int saveChats(List<ChatDto> dtoList) {
+        if (dtoList.isEmpty()) return 0;
+
+        Map<Long, UserGroup> groups = findGroups(dtoList);
+        Map<Long, Member> members = findMembers(dtoList);
+        // fingerprint -> Chat (요청 안의 중복은 첫 건만 남긴다)
+        Map<String, Chat> chats = new LinkedHashMap<>();
 
         for (ChatDto dto : dtoList) {
-            UserGroup userGroup = groupRepository.findById(dto.getGroupId())
-                    .orElseThrow(() -> new IllegalArgumentException("Group not found"));
+            UserGroup userGroup = groups.get(dto.getGroupId());
+            if (userGroup == null) {
+                throw new IllegalArgumentException("Group not found");
+            }
 
-            Member member = memberRepository.findByMemberIdAndUserGroup(dto.getMemberId(), userGroup)
-                    .orElseThrow(() -> new IllegalArgumentException("Member not found"));
+            Member member = members.get(dto.getMemberId());
+            if (member == null || !isMemberOf(member, dto.getGroupId())) {
+                throw new IllegalArgumentException("Member not found");
+            }
 
             Chat chat = new Chat();
             chat.setUserGroup(userGroup);
             chat.setMember(member);
             chat.setTimestamp(dto.getTimestamp());
             chat.setMessage(dto.getMessage());
+            chat.setFingerprint(ChatFingerprint.of(dto.getGroupId(), dto.getMemberId(),
+                    dto.getTimestamp(), dto.getMessage()));
+
+            chats.putIfAbsent(chat.getFingerprint(), chat);
+        }
+        chats.keySet().removeAll(findExisting(chats.values(), true));
+        List<Chat> chatList = new ArrayList<>(chats.values());
 
-            chatList.add(chat);
+        int saved = 0;
+        for (int from = 0; from < chatList.size(); from += uploadBatchSize) {
+            saved += saveChunk(chatList.subList(from, Math.min(chatList.size(), from + uploadBatchSize)));
         }
+        int deduplicated = dtoList.size() - saved;
+        logger.info("🍀채팅 저장 완료: {}건, 중복 {}건 건너뜀 (그룹 {}개, 멤버 {}명)",
+                saved, deduplicated, groups.size(), members.size());
+        return deduplicated;
+    }
+
+    /*
+     * 다른 요청(또는 다른 서버)이 같은 채팅을 먼저 넣어 unique 인덱스에 걸리면,
+     * DB에 이미 있는 것을 빼고 한 번 더 저장한다. 저장한 수를 돌려준다.
+     */
+    private int saveChunk(List<Chat> chunk) {
+        List<Chat> toSave = chunk;
+        try {
+            chatRepository.saveAll(toSave);
+        } catch (DataIntegrityViolationException e) {
+            Set<String> existing = findExisting(chunk, false);
+            existing.forEach(fingerprintFilter::put);
+            toSave = chunk.stream().filter(c -> !existing.contains(c.getFingerprint())).toList();
+            toSave.forEach(c -> c.setChatId(null));
+            logger.warn("채팅 저장 중 중복 {}건 발견, 나머지 {}건 다시 저장", existing.size(), toSave.size());
+            chatRepository.saveAll(toSave);
+        }
+        toSave.forEach(c -> fingerprintFilter.put(c.getFingerprint()));
+        return toSave.size();
+    }
+
+    /*
+     * chats 중 DB에 이미 있는 fingerprint를 그룹마다 IN 쿼리 한 번으로 찾는다.
+     * useFilter면 필터가 없다고 한 것은 확인하지 않는다. (보통 재전송분만 DB까지 간다)
+     */
+    private Set<String> findExisting(Collection<Chat> chats, boolean useFilter) {
+        Map<Long, List<String>> candidates = new HashMap<>();
+        for (Chat chat : chats) {
+            Long groupId = chat.getUserGroup().getGroupId();
+            if (useFilter) {
+                loadFingerprints(groupId);
+                if (!fingerprintFilter.mightContain(chat.getFingerprint())) continue;
+            }
+            candidates.computeIfAbsent(groupId, id -> new ArrayList<>()).add(chat.getFingerprint());
+        }
+
+        Set<String> res = new HashSet<>();
+        candidates.forEach((groupId, fingerprints) ->
+                res.addAll(chatRepository.findFingerprints(groupId, fingerprints)));
+        return res;
+    }
+
+    // 그룹의 fingerprint를 처음 한 번 필터에 올린다.
+    private void loadFingerprints(Long groupId) {
+        if (fingerprintFilter.isLoaded(groupId)) return;
+        synchronized (fingerprintFilter) {
+            if (fingerprintFilter.isLoaded(groupId)) return;
+            List<String> fingerprints = chatRepository.findFingerprintsByGroupId(groupId);
+            fingerprints.forEach(fingerprintFilter::put);
+            fingerprintFilter.markLoaded(groupId);
+            logger.info("🍀채팅 중복 필터 적재: groupId={}, {}건", groupId, fingerprints.size());
+        }
+    }
+
+    private Map<Long, UserGroup> findGroups(List<ChatDto> dtoList) {
+        Set<Long> ids = dtoList.stream().map(ChatDto::getGroupId).collect(Collectors.toSet());
+        Map<Long, UserGroup> res = new HashMap<>();
+        for (UserGroup userGroup : groupRepository.findAllById(ids)) {
+            res.put(userGroup.getGroupId(), userGroup);
+        }
+        return res;
+    }
+
+    private Map<Long, Member> findMembers(List<ChatDto> dtoList) {
+        List<Long> ids = dtoList.stream().map(ChatDto::getMemberId).distinct().toList();
+        Map<Long, Member> res = new HashMap<>();
+        for (Member member : memberRepository.findByMemberIdIn(ids)) {
+            res.put(member.getMemberId(), member);
+        }
+        return res;
+    }
 
-        chatRepository.saveAll(chatList);
+    private static boolean isMemberOf(Member member, Long groupId) {
+        return member.getUserGroup() != null && Objects.equals(member.getUserGroup().getGroupId(), groupId);
     }
 }
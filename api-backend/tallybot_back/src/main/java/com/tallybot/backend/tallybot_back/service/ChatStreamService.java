@@ -0,0 +1,109 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tallybot.backend.tallybot_back.dto.ChatDto;
+import com.tallybot.backend.tallybot_back.dto.ChatUploadProgressDto;
+import com.tallybot.backend.tallybot_back.exception.ChatUploadException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * 대량 채팅 백필용 스트리밍 업로드.
+ *  - 본문 JSON 배열을 Jackson 스트리밍 파서로 원소 하나씩 읽으므로 본문 전체를 메모리에 올리지 않는다.
+ *  - 원소마다 ChatDto 제약을 검사하고, chunkSize개가 모이면 ChatService.saveChats로 저장한다. (chunk 하나 = 트랜잭션 하나)
+ *  - 실패하면 그때까지 저장된 원소 수(committed)를 ChatUploadException에 담아 던진다.
+ *    같은 본문을 offset=committed로 다시 보내면 앞부분은 읽고 건너뛰어 이어서 저장한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatStreamService {
+
+    private final ChatService chatService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatStreamService.class);
+
+    // ChatService.saveChats가 한 번의 saveAll(트랜잭션)로 저장하도록 같은 값을 쓴다.
+    @Value("${chat.upload.batch-size:500}")
+    private int chunkSize = 500;
+
+    // offset: 배열 앞에서 건너뛸 원소 수 (이전 시도에서 응답받은 committed)
+    public ChatUploadProgressDto upload(InputStream in, long offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+
+        long index = 0;     // 지금까지 읽은 배열 원소 수
+        long committed = offset;
+        int chunks = 0;
+        long deduplicated = 0;
+        List<ChatDto> chunk = new ArrayList<>(chunkSize);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Invalid input");
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                if (index++ < offset) {
+                    parser.skipChildren();
+                    continue;
+                }
+                chunk.add(validate(objectMapper.readValue(parser, ChatDto.class)));
+                if (chunk.size() >= chunkSize) {
+                    deduplicated += saveChunk(chunk, committed, chunks + 1);
+                    committed += chunk.size();
+                    chunks++;
+                    chunk.clear();
+                }
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new IllegalArgumentException("Invalid input");
+            }
+            if (!chunk.isEmpty()) {
+                deduplicated += saveChunk(chunk, committed, chunks + 1);
+                committed += chunk.size();
+                chunks++;
+            }
+        } catch (IOException e) {
+            throw new ChatUploadException("Invalid input", committed, chunks, e);
+        } catch (RuntimeException e) {
+            throw new ChatUploadException(e.getMessage(), committed, chunks, e);
+        }
+
+        // 끝까지 읽었으면 건너뛴 원소와 저장한 원소를 합쳐 배열 전체가 저장된 것이다.
+        logger.info("🍀채팅 스트리밍 업로드 완료: {}건 (이번에 {}개 chunk 저장, 중복 {}건, offset {})",
+                index, chunks, deduplicated, offset);
+        return new ChatUploadProgressDto(index, chunks, null, deduplicated);
+    }
+
+    private ChatDto validate(ChatDto dto) {
+        Set<ConstraintViolation<ChatDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+        return dto;
+    }
+
+    // chunk를 저장하고 중복으로 건너뛴 수를 돌려준다.
+    private int saveChunk(List<ChatDto> chunk, long committed, int chunkNumber) {
+        int deduplicated = chatService.saveChats(chunk);
+        logger.info("🍀채팅 스트리밍 업로드: chunk {} 저장 ({}건, 중복 {}건, 누적 {}건)",
+                chunkNumber, chunk.size(), deduplicated, committed + chunk.size());
+        return deduplicated;
+    }
+}
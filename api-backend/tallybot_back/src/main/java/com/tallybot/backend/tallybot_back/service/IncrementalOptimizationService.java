@@ -0,0 +1,145 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.debtopt.Graph;
+import com.tallybot.backend.tallybot_back.debtopt.IncrementalOptimizer;
+import com.tallybot.backend.tallybot_back.domain.*;
+import com.tallybot.backend.tallybot_back.repository.CalculateDetailRepository;
+import com.tallybot.backend.tallybot_back.repository.MemberRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/*
+ * 정산 내역 한 건이 추가/수정/삭제되었을 때의 증분 재최적화.
+ *  1. 변경 전후 Settlement의 잔액 기여 차이를 CalculateBalanceCache에 쌓는다. (recordChange)
+ *  2. 재계산 시 저장된 송금에 그 차이만 반영해, 잔액이 바뀐 연결 성분만 다시 최적화한다. (reoptimize)
+ *  3. 달라진 송금(CalculateDetail)만 수정/추가/삭제한다.
+ * 캐시가 없거나 저장된 송금과 캐시의 잔액이 맞지 않으면 false를 돌려 전체 재계산하게 한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class IncrementalOptimizationService {
+
+    private final CalculateDetailRepository calculateDetailRepository;
+    private final MemberRepository memberRepository;
+    private final OptimizationService optimizationService;
+    private final CalculateBalanceCache balanceCache;
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalOptimizationService.class);
+
+    // 정산 한 건이 멤버별 잔액에 주는 영향 (memberId -> + 받을 돈, - 줄 돈)
+    public Map<Long, Integer> balanceOf(Settlement settlement) {
+        Map<Long, Integer> res = new HashMap<>();
+        if (settlement.getParticipants() == null) return res;
+
+        optimizationService.forEachShare(settlement, (payee, payer, share) -> {
+            if (Objects.equals(payee.getMemberId(), payer.getMemberId())) return;
+            res.merge(payer.getMemberId(), share, Integer::sum);
+            res.merge(payee.getMemberId(), -share, Integer::sum);
+        });
+        return res;
+    }
+
+    /*
+     * 정산이 실제로 속한 Calculate로 쌓는다. (요청의 calculateId는 믿지 않는다)
+     * 트랜잭션 안이면 커밋된 뒤에만 캐시에 반영한다. (롤백된 변경이 잔액에 남지 않도록)
+     */
+    public void recordChange(Settlement settlement, Map<Long, Integer> before, Map<Long, Integer> after) {
+        Long calculateId = settlement.getCalculate().getCalculateId();
+        Map<Long, Integer> delta = new HashMap<>(after);
+        before.forEach((member, amount) -> delta.merge(member, -amount, Integer::sum));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            balanceCache.addDelta(calculateId, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                balanceCache.addDelta(calculateId, delta);
+            }
+        });
+    }
+
+    // 증분 재최적화를 마쳤으면 true, 전체 재계산이 필요하면 false
+    @Transactional
+    public boolean reoptimize(Calculate calculate) {
+        Long calculateId = calculate.getCalculateId();
+        Optional<CalculateBalanceCache.Snapshot> pending = balanceCache.pending(calculateId);
+        if (pending.isEmpty()) return false;
+
+        CalculateBalanceCache.Snapshot snapshot = pending.get();
+        int n = snapshot.members().size();
+        List<CalculateDetail> rows = calculateDetailRepository.findByCalculate(calculate);
+
+        Graph current = new Graph(n);
+        int[] rowPayer = new int[rows.size()];
+        int[] rowPayee = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Integer payer = snapshot.index().get(rows.get(i).getPayer().getMemberId());
+            Integer payee = snapshot.index().get(rows.get(i).getPayee().getMemberId());
+            if (payer == null || payee == null) {
+                return fallBack(calculateId, "캐시에 없는 멤버의 송금");
+            }
+            rowPayer[i] = payer;
+            rowPayee[i] = payee;
+            current.addEdge(payer, payee, rows.get(i).getAmount());
+        }
+
+        List<Integer> balances = current.balances();
+        for (int v = 0; v < n; v++) {
+            if (balances.get(v) != snapshot.balances()[v]) {
+                return fallBack(calculateId, "저장된 송금과 캐시 잔액 불일치");
+            }
+        }
+
+        IncrementalOptimizer.Patch patch = IncrementalOptimizer.reoptimize(current, snapshot.pending(),
+                g -> optimizationService.optimizeGraph(g).graph());
+
+        boolean[] affected = new boolean[n];
+        for (int v : patch.vertices()) {
+            affected[v] = true;
+        }
+
+        // 바뀐 성분의 기존 송금을 (payer, payee)로 찾아 금액만 고치고, 남는 것은 지운다.
+        Map<Long, CalculateDetail> oldRows = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (affected[rowPayer[i]]) {
+                oldRows.put((long) rowPayer[i] * n + rowPayee[i], rows.get(i));
+            }
+        }
+
+        List<CalculateDetail> toSave = new ArrayList<>();
+        patch.graph().forEachEdge((payer, payee, amount) -> {
+            CalculateDetail cd = oldRows.remove((long) payer * n + payee);
+            if (cd == null) {
+                toSave.add(new CalculateDetail(null, calculate,
+                        memberRepository.getReferenceById(snapshot.memberIds().get(payer)),
+                        memberRepository.getReferenceById(snapshot.memberIds().get(payee)), amount));
+            } else if (cd.getAmount() != amount) {
+                cd.setAmount(amount);
+                toSave.add(cd);
+            }
+        });
+
+        calculateDetailRepository.deleteAll(oldRows.values());
+        calculateDetailRepository.saveAll(toSave);
+        balanceCache.commit(calculateId, snapshot);
+
+        logger.info("증분 재최적화: 정산 {} - 멤버 {}명 중 {}명 재계산, 송금 {}건 저장 / {}건 삭제",
+                calculateId, n, patch.vertices().length, toSave.size(), oldRows.size());
+        return true;
+    }
+
+    private boolean fallBack(Long calculateId, String reason) {
+        logger.warn("증분 재최적화 불가 ({}): 정산 {} 전체 재계산", reason, calculateId);
+        balanceCache.invalidate(calculateId);
+        return false;
+    }
+}
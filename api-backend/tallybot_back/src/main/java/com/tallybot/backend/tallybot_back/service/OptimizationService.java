@@ -1,81 +1,190 @@
 package com.tallybot.backend.tallybot_back.service;
 
-import org.springframework.data.util.Pair;
-import com.tallybot.backend.tallybot_back.debtopt.Graph;
+import com.tallybot.backend.tallybot_back.debtopt.*;
 import com.tallybot.backend.tallybot_back.domain.*;
 import com.tallybot.backend.tallybot_back.repository.CalculateDetailRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 @Service
 @RequiredArgsConstructor
 public class OptimizationService {
 
     private final CalculateDetailRepository calculateDetailRepository;
-
+    private final MeterRegistry meterRegistry;
+    private final StrategyPortfolio strategyPortfolio;
+    private final CalculateBalanceCache balanceCache;
+    private final BalancePatternCache resultCache;
+    private final OptimizerCapture optimizerCapture;
+    private final ShadowOptimizer shadowOptimizer;
+
+    // 잔액이 0이 아닌 멤버 수가 이 값 이하이면 정확해 탐색, 초과하면 휴리스틱(Graph.summarize)
+    @Value("${optimizer.exact.cutoff:" + ExactOptimizer.DEFAULT_CUTOFF + "}")
+    private int exactCutoff = ExactOptimizer.DEFAULT_CUTOFF;
+
+    // 휴리스틱 최적화 시 간선 수가 이 값 이상인 연결 성분은 fork/join으로 병렬 처리
+    @Value("${optimizer.parallel.enabled:true}")
+    private boolean parallelEnabled = true;
+
+    @Value("${optimizer.parallel.threshold:" + ParallelSummarizer.DEFAULT_THRESHOLD + "}")
+    private int parallelThreshold = ParallelSummarizer.DEFAULT_THRESHOLD;
+
+    // 참여 멤버 수가 이 값 이상이면 오일러 회로 대신 힙 기반 잔액 상계(GreedyNetting) 사용
+    @Value("${optimizer.netting.min-members:1000}")
+    private int nettingMinMembers = 1000;
+
+    // 휴리스틱 대신 여러 전략 순서를 동시에 돌려 가장 좋은 결과를 고름 (optimizer.portfolio.*)
+    @Value("${optimizer.portfolio.enabled:false}")
+    private boolean portfolioEnabled = false;
+
+    // 0보다 크면 정확해/휴리스틱 대신 이 시간(ms) 안의 최선 결과를 쓴다. (AnytimeOptimizer)
+    @Value("${optimizer.deadline-ms:3000}")
+    private long deadlineMs = 3000;
+
+    // 최적화된 송금을 이 개수씩 묶어 저장한다.
+    @Value("${optimizer.persist.batch-size:500}")
+    private int persistBatchSize = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimizationService.class);
+
+    /*
+     * 최적화된 송금을 만들어지는 대로 persistBatchSize개씩 저장한다.
+     * 잔액 캐시도 저장하는 송금으로 바로 쌓으므로 결과 전체를 CalculateDetail 목록으로 들고 있지 않는다.
+     */
     public void calculateAndOptimize(List<Settlement> settlementList) {
-        List<CalculateDetail> lcd = calculateShare(settlementList);
-        lcd = optimize(settlementList, lcd);
-
-
-        calculateDetailRepository.saveAll(lcd);
+        calculateAndOptimize(settlementList, balanceCache.loader(settlementList.get(0).getCalculate().getCalculateId()));
     }
 
-    private List<CalculateDetail> calculateShare(List<Settlement> sm) {
-        Map<Pair<Member, Member>, Integer> m = new HashMap<>();
-
+    // 전체 재계산: cacheLoader는 settlementList를 읽기 전에 만든 것이어야 한다. (balanceLoader)
+    public void calculateAndOptimize(List<Settlement> settlementList, CalculateBalanceCache.Loader cacheLoader) {
+        Calculate calculate = settlementList.get(0).getCalculate();
+        List<CalculateDetail> batch = new ArrayList<>(persistBatchSize);
+
+        optimizeShares(settlementList, (payer, payee, amount) -> {
+            batch.add(new CalculateDetail(null, calculate, payer, payee, amount));
+            cacheLoader.add(payer.getMemberId(), payee.getMemberId(), amount);
+            if (batch.size() >= persistBatchSize) {
+                calculateDetailRepository.saveAll(batch);
+                batch.clear();
+            }
+        });
+        calculateDetailRepository.saveAll(batch);
+        cacheLoader.done();
+    }
 
+    /*
+     * 최적화된 송금을 CalculateDetail 목록으로 돌려준다. DB를 건드리지 않으므로 트랜잭션 밖에서 부른다.
+     * 저장은 saveDetails로 한다.
+     */
+    public List<CalculateDetail> optimizeDetails(List<Settlement> settlementList) {
+        Calculate calculate = settlementList.get(0).getCalculate();
+        List<CalculateDetail> details = new ArrayList<>();
+        optimizeShares(settlementList, (payer, payee, amount) ->
+                details.add(new CalculateDetail(null, calculate, payer, payee, amount)));
+        return details;
+    }
 
-        for (Settlement s : sm) {
-            int totalAmount = s.getAmount();
-            int fixedAmount = s.getParticipants().stream().mapToInt(Participant::getConstant).sum();
-            int remainingAmount = totalAmount - fixedAmount;
+    // optimizeDetails 결과를 저장하고 잔액 캐시를 채운다.
+    public void saveDetails(Calculate calculate, List<CalculateDetail> details) {
+        calculateDetailRepository.saveAll(details);
+        balanceCache.put(calculate.getCalculateId(), details);
+    }
 
-            double totalRatio = s.getParticipants().stream()
-                    .mapToDouble(p -> p.getRatio().toDouble())
-                    .sum();
+    // 전체 재계산을 시작할 때 정산 내역을 읽기 전에 부른다. 그 사이 바뀐 정산이 있으면 캐시에 넣지 않는다.
+    public CalculateBalanceCache.Loader balanceLoader(Long calculateId) {
+        return balanceCache.loader(calculateId);
+    }
 
+    @FunctionalInterface
+    public interface TransferSink {
+        void accept(Member payer, Member payee, int amount);
+    }
 
-            for (Participant pc : s.getParticipants()) {
-                Member payer = s.getPayer(); // 돈 낸 사람 (받을 사람)
-                Member payee = pc.getParticipantKey().getMember(); // 참여자 (줄 사람)
+    /*
+     * 정산들의 몫을 멤버 쌍별로 쌓고 최적화한 송금을 sink로 하나씩 내보낸다. (payer가 payee에게 amount를 보낸다)
+     * 반환값은 내보낸 송금 수
+     */
+    public int optimizeShares(List<Settlement> settlementList, TransferSink sink) {
+        ShareLedger ledger = calculateShare(settlementList);
+        logSummary(ledger);
+
+        // 🔄 그룹 규모에 맞는 엔진으로 최적화하고, 📦 결과를 원장의 멤버로 되돌려 내보낸다.
+        return ledger.edges().optimize(graph -> optimizeGraph(graph).graph(),
+                (i, j, amount) -> sink.accept(ledger.member(i), ledger.member(j), amount));
+    }
 
-                // ✅ 돈을 줘야 하는 사람 → 받은 사람
-                Pair<Member, Member> p = Pair.of(payee, payer);
+    @FunctionalInterface
+    public interface ShareConsumer {
+        void accept(Member payee, Member payer, int share);
+    }
 
-                int constant = pc.getConstant();
-                double ratio = pc.getRatio().toDouble();
-                int ratioShare = (totalRatio == 0)
-                        ? 0
-                        : (int) Math.round(ratio / totalRatio * remainingAmount);
+    // 정산 한 건에서 참여자(payee)가 결제자(payer)에게 줄 몫을 차례로 넘긴다.
+    public void forEachShare(Settlement s, ShareConsumer consumer) {
+        forEachShare(List.of(s), consumer);
+    }
 
+    /*
+     * 정산 여러 건의 참여자를 원시 배열 한 벌에 이어 담아 Apportionment로 한 번에 나눈다.
+     * 몫은 정수 연산과 최대 나머지 방식으로 정하므로 정산마다 몫의 합이 총액과 정확히 같다.
+     */
+    public void forEachShare(List<Settlement> sm, ShareConsumer consumer) {
+        int[] start = new int[sm.size() + 1];
+        for (int k = 0; k < sm.size(); k++) {
+            Set<Participant> participants = sm.get(k).getParticipants();
+            start[k + 1] = start[k] + (participants == null ? 0 : participants.size());
+        }
 
-                int totalShare = constant + ratioShare;
+        int n = start[sm.size()];
+        int[] amounts = new int[sm.size()];
+        int[] constants = new int[n];
+        int[] numerators = new int[n];
+        int[] denominators = new int[n];
+        Member[] payees = new Member[n];
+        for (int k = 0; k < sm.size(); k++) {
+            Settlement s = sm.get(k);
+            amounts[k] = s.getAmount();
+            if (s.getParticipants() == null) continue;
+            int i = start[k];
+            for (Participant pc : s.getParticipants()) {
+                constants[i] = pc.getConstant();
+                numerators[i] = pc.getRatio().getNumerator();
+                denominators[i] = pc.getRatio().getDenominator();
+                payees[i] = pc.getParticipantKey().getMember(); // 참여자 (줄 사람)
+                i++;
+            }
+        }
 
-                // 로그
-                System.out.println("🩵 - Ratio (as double): " + ratio);
-                System.out.println(" - Ratio Share: " + ratioShare);
-                System.out.println(" - Total Share: " + totalShare);
+        long[] shares = new long[n];
+        Apportionment.apportion(amounts, start, constants, numerators, denominators, shares);
 
-                m.put(p, m.getOrDefault(p, 0) + totalShare);
+        for (int k = 0; k < sm.size(); k++) {
+            Member payer = sm.get(k).getPayer(); // 돈 낸 사람 (받을 사람)
+            for (int i = start[k]; i < start[k + 1]; i++) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("정산 몫: 비율 {}/{}, 고정 {}, 몫 {}", numerators[i], denominators[i], constants[i], shares[i]);
+                }
+                consumer.accept(payees[i], payer, Math.toIntExact(shares[i]));
             }
         }
+    }
 
-        Calculate calculate = sm.get(0).getCalculate();
-        List<CalculateDetail> lcd = new ArrayList<>();
-        for (Map.Entry<Pair<Member, Member>, Integer> entry : m.entrySet()) {
-            lcd.add(new CalculateDetail(
-                    null, calculate,
-                    entry.getKey().getFirst(),  // payer → 돈을 주는 사람
-                    entry.getKey().getSecond(), // payee → 돈을 받는 사람
-                    entry.getValue()));
-        }
+    // 멤버 쌍별 몫을 원시 배열 원장에 쌓는다. (Member 해싱 없음)
+    private ShareLedger calculateShare(List<Settlement> sm) {
+        ShareLedger ledger = new ShareLedger();
 
-        return lcd;
-    }
+        // ✅ 돈을 줘야 하는 사람 → 받은 사람
+        forEachShare(sm, ledger::add);
 
+        return ledger;
+    }
 
 
 
@@ -114,67 +223,149 @@ public class OptimizationService {
 //        return lcd2;
 //    }
 
-    private List<CalculateDetail> optimize(List<Settlement> sm, List<CalculateDetail> lcd) {
-        Set<Member> members = new HashSet<>();
-        Calculate calculate = sm.get(0).getCalculate();
-
+    private void logSummary(ShareLedger ledger) {
         // ✅ 정산 요약 로그 추가
         System.out.println("\n📌 개인별 정산 요약 (받을 돈 - 줄 돈)");
 
-        Map<Member, Integer> totalPaid = new HashMap<>();
-        Map<Member, Integer> totalReceived = new HashMap<>();
+        long[] balances = ledger.balances();
+        for (int i = 0; i < balances.length; i++) {
+            long net = balances[i];
 
-        for (CalculateDetail cd : lcd) {
-            totalPaid.put(cd.getPayer(), totalPaid.getOrDefault(cd.getPayer(), 0) + cd.getAmount());
-            totalReceived.put(cd.getPayee(), totalReceived.getOrDefault(cd.getPayee(), 0) + cd.getAmount());
-            members.add(cd.getPayer());
-            members.add(cd.getPayee());
+            System.out.println("❤️- Member " + ledger.member(i).getMemberId() + " → 정산 결과: " +
+                    (net > 0 ? "+받을 금액 " : (net < 0 ? "-줄 금액 " : "정산 완료 ")) + Math.abs(net));
         }
+    }
 
-        Set<Member> allMembers = new HashSet<>();
-        allMembers.addAll(totalPaid.keySet());
-        allMembers.addAll(totalReceived.keySet());
-
-        for (Member m : allMembers) {
-            int paid = totalPaid.getOrDefault(m, 0);
-            int received = totalReceived.getOrDefault(m, 0);
-            int net = received - paid;
+    /*
+     * 그룹 규모에 따라 엔진을 고른다.
+     *  - 참여 멤버 nettingMinMembers명 이상: GreedyNetting (O(n log n), 송금 n - 1번 이하)
+     *  - 잔액이 0이 아닌 멤버 exactCutoff명 이하: ExactOptimizer (최소 송금 횟수)
+     *  - 그 외: 오일러 회로 휴리스틱 (필요 시 병렬), portfolioEnabled면 전략 포트폴리오
+     *  - deadlineMs > 0이면 정확해/휴리스틱 대신 AnytimeOptimizer로 응답 시간 상한을 둔다.
+     * 잔액 벡터가 같은 이전 결과가 있으면 최적화 없이 그대로 쓴다. (CACHED, 마감에 잘린 미증명 결과는 캐시하지 않음)
+     * optimizer.capture.enabled면 캐시에 없던 입력과 걸린 시간을 OptimizerCapture로 기록한다.
+     * optimizer.shadow.engine이 있으면 캐시에 없던 입력 일부를 그 엔진으로도 따로 돌려 비교한다. (결과는 메트릭만)
+     * 사용한 엔진은 결과와 optimizer.engine 메트릭으로 남긴다.
+     */
+    public OptimizationResult optimizeGraph(Graph graph) {
+        int lowerBound = StrategyPortfolio.lowerBound(graph);
+        Optional<Graph> cached = resultCache.lookup(graph);
+        if (cached.isPresent()) {
+            meterRegistry.counter("optimizer.engine", "engine", OptimizerEngine.CACHED.name()).increment();
+            logger.info("정산 최적화 캐시 적중 (멤버 {}명, 간선 {}개 -> {}개)",
+                    graph.getVertexCount(), graph.getEdgeCount(), cached.get().getEdgeCount());
+            return new OptimizationResult(cached.get(), OptimizerEngine.CACHED,
+                    cached.get().getEdgeCount() <= lowerBound);
+        }
 
-            System.out.println("❤️- Member " + m.getMemberId() + " → 정산 결과: " +
-                    (net > 0 ? "+받을 금액 " : (net < 0 ? "-줄 금액 " : "정산 완료 ")) + Math.abs(net));
+        OptimizerEngine engine = selectEngine(graph);
+        long startNanos = System.nanoTime();
+        boolean proven = false;
+        boolean expired = false;
+        Graph res;
+        switch (engine) {
+            case NETTING -> res = GreedyNetting.summarize(graph);
+            case EXACT -> res = ExactOptimizer.summarize(graph, exactCutoff, this::summarizeHeuristic);
+            case PORTFOLIO -> res = summarizePortfolio(graph);
+            case HEURISTIC -> res = summarizeHeuristic(graph);
+            case ANYTIME -> {
+                Deadline deadline = Deadline.after(Duration.ofMillis(deadlineMs));
+                AnytimeOptimizer.Result result = AnytimeOptimizer.summarize(graph, exactCutoff,
+                        deadline, this::summarizeHeuristic);
+                res = result.graph();
+                proven = result.provenOptimal();
+                expired = deadline.expired();
+            }
+            default -> throw new IllegalArgumentException("지원하지 않는 엔진: " + engine);
         }
+        // 하한에 닿았으면 어떤 엔진이든 최적이다.
+        proven |= res.getEdgeCount() <= lowerBound;
 
-        // 👥 참여 멤버 인덱스 구성
-        List<Member> memberList = new ArrayList<>(members);
-        Graph graph = new Graph(memberList.size());
+        long elapsedNanos = System.nanoTime() - startNanos;
+        capture(graph, engine, elapsedNanos, res);
+        shadow(graph, res, elapsedNanos);
 
-        for (CalculateDetail cd : lcd) {
-            int payerNum = memberList.indexOf(cd.getPayer());
-            int payeeNum = memberList.indexOf(cd.getPayee());
-            graph.addEdge(payerNum, payeeNum, cd.getAmount());
+        // 마감에 잘린 결과(기본 그래프/greedy 대체 등)는 다음엔 더 나을 수 있으므로 최적이 증명된 것만 캐시한다.
+        if (proven || !expired) {
+            resultCache.put(graph, res);
         }
+        meterRegistry.counter("optimizer.engine", "engine", engine.name()).increment();
+        logger.info("정산 최적화 엔진: {} (멤버 {}명, 간선 {}개 -> {}개, 최적 증명 {})",
+                engine, graph.getVertexCount(), graph.getEdgeCount(), res.getEdgeCount(), proven);
+        return new OptimizationResult(res, engine, proven);
+    }
+
+    // 기록에 실패해도 최적화 결과에는 영향이 없도록 경고만 남긴다.
+    private void capture(Graph graph, OptimizerEngine engine, long elapsedNanos, Graph res) {
+        if (!optimizerCapture.isEnabled()) return;
+        try {
+            optimizerCapture.record(graph, engine, elapsedNanos, res.getEdgeCount());
+        } catch (RuntimeException e) {
+            logger.warn("최적화 입력 기록 실패: {}", e.toString());
+        }
+    }
 
-        // 🔄 summarize로 그래프 최적화
-        Graph graph2 = Graph.summarize(graph);
-        if (graph2.getEdgeCount() < graph.getEdgeCount()) {
-            graph = graph2;
+    // 섀도 엔진은 전용 풀에서 입력 복사본으로 돌므로 여기서 실패해도 저장되는 결과는 그대로다.
+    private void shadow(Graph graph, Graph res, long elapsedNanos) {
+        if (!shadowOptimizer.isEnabled()) return;
+        try {
+            shadowOptimizer.offer(graph, res, elapsedNanos);
+        } catch (RuntimeException e) {
+            logger.warn("섀도 최적화 제출 실패: {}", e.toString());
         }
+    }
 
-        // 📦 최적화된 결과로 CalculateDetail 재구성
-        List<CalculateDetail> lcd2 = new ArrayList<>();
-        for (int i = 0; i < graph.getVertexCount(); i++) {
-            for (Integer j : graph.getAdjacencyList().get(i).keySet()) {
-                int amount = graph.getAdjacencyList().get(i).get(j);
-                if (amount < 0) continue;
+    private OptimizerEngine selectEngine(Graph graph) {
+        if (graph.getVertexCount() >= nettingMinMembers) {
+            return OptimizerEngine.NETTING;
+        }
 
-                Member payer = memberList.get(i);
-                Member payee = memberList.get(j);
-                lcd2.add(new CalculateDetail(null, calculate, payer, payee, amount));
-            }
+        int nonZero = 0;
+        for (int b : graph.balances()) {
+            if (b != 0) nonZero++;
         }
+        if (nonZero <= exactCutoff) {
+            return deadlineMs > 0 ? OptimizerEngine.ANYTIME : OptimizerEngine.EXACT;
+        }
+        if (portfolioEnabled) {
+            return OptimizerEngine.PORTFOLIO;
+        }
+        return deadlineMs > 0 ? OptimizerEngine.ANYTIME : OptimizerEngine.HEURISTIC;
+    }
 
-        return lcd2;
+    /*
+     * 후보별 승률은 optimizer.portfolio.wins / optimizer.portfolio.runs (strategy 태그)로 본다.
+     * 공동 1위는 모두 승리로 센다.
+     */
+    private Graph summarizePortfolio(Graph graph) {
+        StrategyPortfolio.Result result = strategyPortfolio.summarize(graph);
+        for (String name : result.edgeCounts().keySet()) {
+            meterRegistry.counter("optimizer.portfolio.runs", "strategy", name).increment();
+        }
+        for (String name : result.winners()) {
+            meterRegistry.counter("optimizer.portfolio.wins", "strategy", name).increment();
+        }
+        for (String name : result.cancelled()) {
+            meterRegistry.counter("optimizer.portfolio.cancelled", "strategy", name).increment();
+        }
+        logger.debug("전략 포트폴리오: 승자 {}, 간선 수 {}, 취소 {}, 하한 {} (도달 {})",
+                result.winners(), result.edgeCounts(), result.cancelled(),
+                result.lowerBound(), result.lowerBoundReached());
+        return result.graph();
     }
 
+    private Graph summarizeHeuristic(Graph graph) {
+        return summarizeHeuristic(graph, Deadline.NONE);
+    }
 
+    // 병렬을 끄면 threshold를 최대로 두어 순차 처리한다. 순환 상쇄로 지운 간선 수는 메트릭으로 남긴다.
+    private Graph summarizeHeuristic(Graph graph, Deadline deadline) {
+        int threshold = parallelEnabled ? parallelThreshold : Integer.MAX_VALUE;
+        ParallelSummarizer.Result result =
+                new ParallelSummarizer(ForkJoinPool.commonPool(), threshold).summarizeWithStats(graph, deadline);
+        meterRegistry.counter("optimizer.cycles.removed-edges").increment(result.cycleEdgesRemoved());
+        logger.debug("그래프 최적화: 간선 {}개, 순환 상쇄로 {}개 제거, 병렬 작업 {}개, 사용 스레드 {}개",
+                graph.getEdgeCount(), result.cycleEdgesRemoved(), result.forkedTasks(), result.workerThreads());
+        return result.graph();
+    }
 }
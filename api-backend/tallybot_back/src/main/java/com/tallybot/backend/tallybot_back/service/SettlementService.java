@@ -21,6 +21,7 @@ public class SettlementService {
     private final GroupRepository groupRepository;
     private final OptimizationService optimizationService;
     private final CalculateDetailRepository calculateDetailRepository;
+    private final IncrementalOptimizationService incrementalOptimizationService;
 
 
     public boolean fieldExists(String fieldName, SettlementUpdateRequest request)
@@ -157,16 +158,21 @@ public class SettlementService {
             newSettlement.setCalculate(calculate);
 
             settlementRepository.save(newSettlement);
+            incrementalOptimizationService.recordChange(newSettlement,
+                    Map.of(), incrementalOptimizationService.balanceOf(newSettlement));
             return newSettlement.getSettlementId();
         }
 
         ///settlement 수정 및 삭제
         Settlement settlement = settlementRepository.findById(request.getSettlementId())
                 .orElseThrow(() -> new IllegalArgumentException("해당 정산 내역이 존재하지 않음"));
+        // 증분 재최적화용: 변경 전 잔액 기여
+        Map<Long, Integer> before = incrementalOptimizationService.balanceOf(settlement);
 
         if ("delete".equals(field))
          {
              settlementRepository.delete(settlement);
+             incrementalOptimizationService.recordChange(settlement, before, Map.of());
 
 
              return settlementId;
@@ -260,6 +266,8 @@ public class SettlementService {
                 }
             }
             settlementRepository.save(settlement);
+            incrementalOptimizationService.recordChange(settlement,
+                    before, incrementalOptimizationService.balanceOf(settlement));
             return settlementId;
         }
     }
@@ -288,12 +296,17 @@ public class SettlementService {
 //
 
     public void applyAfterUpdate(Long calculateId) {
+        // 정산 내역을 읽기 전에 시작해야 그 사이 바뀐 정산을 알아챈다.
+        CalculateBalanceCache.Loader cacheLoader = optimizationService.balanceLoader(calculateId);
         Calculate calculate = calculateRepository.findById(calculateId)
                 .orElseThrow(() -> new IllegalArgumentException("정산 없음"));
-        List<Settlement> settlementList = settlementRepository.findByCalculate(calculate);
+        // 캐시된 잔액이 있으면 바뀐 부분만 다시 최적화
+        if (!incrementalOptimizationService.reoptimize(calculate)) {
+            List<Settlement> settlementList = settlementRepository.findByCalculate(calculate);
 
-        calculateDetailRepository.deleteByCalculate(calculate);
-        optimizationService.calculateAndOptimize(settlementList);
+            calculateDetailRepository.deleteByCalculate(calculate);
+            optimizationService.calculateAndOptimize(settlementList, cacheLoader);
+        }
 
         calculate.setStatus(CalculateStatus.PENDING);
         calculateRepository.save(calculate);
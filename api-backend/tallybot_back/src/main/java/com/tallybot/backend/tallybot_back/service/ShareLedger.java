@@ -0,0 +1,113 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.debtopt.EdgeAccumulator;
+import com.tallybot.backend.tallybot_back.debtopt.EdgeConsumer;
+import com.tallybot.backend.tallybot_back.domain.Member;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * 정산 몫 누적용 원장.
+ * 멤버는 memberId로 0부터 촘촘한 번호를 받고, 멤버 쌍별 몫은 그 번호로 EdgeAccumulator에 쌓는다.
+ * 엔티티의 equals/hashCode를 쓰지 않으므로 참여자 수와 무관하게 멤버 수 + 멤버 쌍 수만큼만 메모리를 쓴다.
+ */
+final class ShareLedger {
+    private final LongIndex memberIndex = new LongIndex(16);
+    private final List<Member> members = new ArrayList<>();
+    private final EdgeAccumulator edges = new EdgeAccumulator();
+
+    // payee(참여자)가 payer(결제자)에게 줄 몫 share를 더한다.
+    void add(Member payee, Member payer, long share) {
+        edges.add(indexOf(payee), indexOf(payer), share);
+    }
+
+    // 처음 보는 멤버면 다음 번호를 준다.
+    int indexOf(Member m) {
+        if (m.getMemberId() == null) {
+            throw new IllegalArgumentException("저장되지 않은 멤버는 정산할 수 없습니다.");
+        }
+        int i = memberIndex.indexOf(m.getMemberId());
+        if (i == members.size()) {
+            members.add(m);
+        }
+        return i;
+    }
+
+    int memberCount() {
+        return members.size();
+    }
+
+    Member member(int i) {
+        return members.get(i);
+    }
+
+    List<Member> members() {
+        return members;
+    }
+
+    // 멤버 번호 기준으로 쌓인 몫 (상계 후)
+    EdgeAccumulator edges() {
+        return edges;
+    }
+
+    // 상계 후 0이 아닌 몫을 (줄 사람 번호, 받을 사람 번호, 금액 > 0)으로 추가된 순서대로 방문한다.
+    void forEachShare(EdgeConsumer consumer) {
+        edges.forEachEdge(consumer);
+    }
+
+    // 멤버 번호별 (받을 돈 - 줄 돈)
+    long[] balances() {
+        long[] balances = edges.balances();
+        return balances.length == members.size() ? balances : Arrays.copyOf(balances, members.size());
+    }
+
+    /*
+     * long 키 -> 추가된 순서의 번호. 키는 번호 순으로 keys에 두고,
+     * 선형 탐사 해시 테이블 slots에는 번호 + 1을 둔다. (0은 빈 칸)
+     */
+    private static final class LongIndex {
+        private long[] keys;
+        private int[] slots;
+        private int size;
+
+        LongIndex(int expected) {
+            keys = new long[expected];
+            slots = new int[Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1];
+        }
+
+        int indexOf(long key) {
+            int s = slot(key);
+            if (slots[s] != 0) {
+                return slots[s] - 1;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            keys[size] = key;
+            slots[s] = ++size;
+            if (size * 2 > slots.length) {
+                grow();
+            }
+            return size - 1;
+        }
+
+        private int slot(long key) {
+            int mask = slots.length - 1;
+            long h = key * 0x9E3779B97F4A7C15L;
+            int s = (int) (h ^ (h >>> 32)) & mask;
+            while (slots[s] != 0 && keys[slots[s] - 1] != key) {
+                s = (s + 1) & mask;
+            }
+            return s;
+        }
+
+        private void grow() {
+            slots = new int[slots.length * 2];
+            for (int i = 0; i < size; i++) {
+                slots[slot(keys[i])] = i + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.tallybot.backend.tallybot_back.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+
+/*
+ * 채팅 중복 판별 값.
+ * SHA-256("groupId␟memberId␟timestamp␟message")의 앞 8바이트를 16자리 소문자 hex로 쓴다.
+ * timestamp는 DB에 저장되는 마이크로초까지만 본다. db/chat_fingerprint.sql의 백필 식과 같아야 한다.
+ */
+public final class ChatFingerprint {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS");
+    private static final char SEPARATOR = '\u001f';
+    private static final HexFormat HEX = HexFormat.of();
+
+    private ChatFingerprint() {
+    }
+
+    public static String of(Long groupId, Long memberId, LocalDateTime timestamp, String message) {
+        String key = String.valueOf(groupId) + SEPARATOR + memberId + SEPARATOR
+                + timestamp.format(FORMAT) + SEPARATOR + message;
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HEX.formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Bloom filter 등에서 쓰는 64비트 값
+    public static long toLong(String fingerprint) {
+        return HexFormat.fromHexDigitsToLong(fingerprint);
+    }
+}
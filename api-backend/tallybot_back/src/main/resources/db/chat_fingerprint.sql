@@ -0,0 +1,17 @@
+-- chat 중복 판별용 fingerprint 컬럼과 (group_id, fingerprint) unique 인덱스 (ddl-auto=validate인 rds/prod에서 배포 전 한 번 실행)
+-- 백필 식은 ChatFingerprint와 같아야 한다: SHA-256(group_id␟member_id␟timestamp(마이크로초)␟message)의 앞 16자리 hex
+ALTER TABLE chat ADD COLUMN fingerprint CHAR(16) NULL;
+
+UPDATE chat
+SET fingerprint = LEFT(SHA2(CONCAT_WS(CHAR(31 USING utf8mb4), group_id, member_id,
+        DATE_FORMAT(`timestamp`, '%Y-%m-%dT%H:%i:%s.%f'), message), 256), 16);
+
+-- 이미 중복으로 들어간 채팅은 가장 먼저 저장된 것만 남긴다.
+DELETE c FROM chat c
+JOIN chat keep_chat ON keep_chat.group_id = c.group_id
+    AND keep_chat.fingerprint = c.fingerprint
+    AND keep_chat.chat_id < c.chat_id;
+
+ALTER TABLE chat
+    MODIFY fingerprint CHAR(16) NOT NULL,
+    ADD CONSTRAINT uk_chat_group_fingerprint UNIQUE (group_id, fingerprint);
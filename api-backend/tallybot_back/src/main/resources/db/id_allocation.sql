@@ -0,0 +1,19 @@
+-- Settlement / CalculateDetail / Chat ID 묶음 할당 테이블 (ddl-auto=validate인 rds/prod에서 배포 전 한 번 실행)
+-- next_val은 기존 최대 ID + 할당 크기(500)로 시작해, 새로 받는 ID가 기존 행과 겹치지 않게 한다.
+CREATE TABLE IF NOT EXISTS id_allocation (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+) ENGINE = InnoDB;
+
+INSERT INTO id_allocation (sequence_name, next_val)
+SELECT 'settlement', COALESCE(MAX(settlement_id), 0) + 500 FROM settlement
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_allocation (sequence_name, next_val)
+SELECT 'calculate_detail', COALESCE(MAX(calculate_detail_id), 0) + 500 FROM calculate_detail
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_allocation (sequence_name, next_val)
+SELECT 'chat', COALESCE(MAX(chat_id), 0) + 500 FROM chat
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
@@ -8,6 +8,7 @@ import com.tallybot.backend.tallybot_back.service.*;
 import com.tallybot.backend.tallybot_back.repository.*;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -48,6 +49,9 @@ class CalculateControllerTest {
     @MockitoBean
     private SettlementRepository settlementRepository;
 
+    @MockitoBean
+    private ChatIngestService chatIngestService;
+
 
 
     @Autowired
@@ -72,6 +76,28 @@ class CalculateControllerTest {
                 .andExpect(jsonPath("$.calculateId").value(42));
     }
 
+    @Test
+    @DisplayName("비동기 수집 채팅은 정산 트랜잭션이 열리기 전에 DB로 옮긴다")
+    void startCalculate_flushesIngestBeforeCalculate() throws Exception {
+        CalculateRequestDto request = new CalculateRequestDto(
+                1L,
+                LocalDateTime.of(2024, 5, 1, 14, 0),
+                LocalDateTime.of(2024, 5, 1, 15, 0)
+        );
+
+        given(calculateService.groupExists(1L)).willReturn(true);
+        given(calculateService.startCalculate(any())).willReturn(42L);
+
+        mockMvc.perform(post("/api/calculate/start")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        InOrder inOrder = inOrder(chatIngestService, calculateService);
+        inOrder.verify(chatIngestService).flush();
+        inOrder.verify(calculateService).startCalculate(any());
+    }
+
 
     @Test
     @DisplayName("404 Not Found : 그룹 없음")
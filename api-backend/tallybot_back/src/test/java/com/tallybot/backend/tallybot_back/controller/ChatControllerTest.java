@@ -2,7 +2,11 @@ package com.tallybot.backend.tallybot_back.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tallybot.backend.tallybot_back.dto.ChatDto;
+import com.tallybot.backend.tallybot_back.dto.ChatUploadProgressDto;
+import com.tallybot.backend.tallybot_back.exception.ChatUploadException;
+import com.tallybot.backend.tallybot_back.service.ChatIngestService;
 import com.tallybot.backend.tallybot_back.service.ChatService;
+import com.tallybot.backend.tallybot_back.service.ChatStreamService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,8 +19,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 
@@ -35,6 +43,12 @@ class ChatControllerTest {
     @MockitoBean
     private ChatService chatService;
 
+    @MockitoBean
+    private ChatStreamService chatStreamService;
+
+    @MockitoBean
+    private ChatIngestService chatIngestService;
+
     @Test
     @DisplayName("채팅 업로드 성공")
     void uploadChat_Success() throws Exception {
@@ -45,13 +59,33 @@ class ChatControllerTest {
         );
 
         given(chatService.groupAndMembersExist(anyList())).willReturn(true);
+        given(chatService.saveChats(anyList())).willReturn(1);
 
         mockMvc.perform(post("/api/chat/upload")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(chatList)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.message").value("Upload successful. Chat count: 2"));
+                .andExpect(jsonPath("$.message").value("Upload successful. Chat count: 2"))
+                .andExpect(jsonPath("$.deduplicated").value(1));
+
+    }
+
+    @Test
+    @DisplayName("비동기 수집 모드 : 로그에 기록 후 202")
+    void uploadChat_asyncAccepted() throws Exception {
+        List<ChatDto> chatList = List.of(new ChatDto(1L, LocalDateTime.now(), 1001L, "안녕"));
+
+        given(chatService.groupAndMembersExist(anyList())).willReturn(true);
+        given(chatIngestService.isEnabled()).willReturn(true);
+
+        mockMvc.perform(post("/api/chat/upload")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(chatList)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.message").value("Upload accepted. Chat count: 1"));
 
+        verify(chatIngestService).accept(anyList());
+        verify(chatService, never()).saveChats(anyList());
     }
 
     @Test
@@ -93,4 +127,33 @@ class ChatControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Essential field must not be null"));
     }
+
+    @Test
+    @DisplayName("스트리밍 업로드 성공")
+    void uploadChatStream_Success() throws Exception {
+        given(chatStreamService.upload(any(), eq(500L))).willReturn(new ChatUploadProgressDto(1200, 2, null, 3));
+
+        mockMvc.perform(post("/api/chat/upload/stream")
+                        .param("offset", "500")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(1200))
+                .andExpect(jsonPath("$.chunks").value(2))
+                .andExpect(jsonPath("$.deduplicated").value(3));
+    }
+
+    @Test
+    @DisplayName("스트리밍 업로드 실패 : 이어서 보낼 위치 반환")
+    void uploadChatStream_failureReturnsCommitted() throws Exception {
+        given(chatStreamService.upload(any(), eq(0L))).willThrow(new ChatUploadException(
+                "Member not found", 1000, 2, new IllegalArgumentException("Member not found")));
+
+        mockMvc.perform(post("/api/chat/upload/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.committed").value(1000))
+                .andExpect(jsonPath("$.error").value("Member not found"));
+    }
 }
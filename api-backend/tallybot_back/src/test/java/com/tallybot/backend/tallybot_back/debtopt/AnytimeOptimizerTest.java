@@ -0,0 +1,47 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static com.tallybot.backend.tallybot_back.debtopt.DebtGraphTestFixtures.randomGraph;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnytimeOptimizerTest {
+
+    @Test
+    void summarize_smallGroupIsProvenOptimal() {
+        Random random = new Random(11);
+        for (int c = 0; c < 30; c++) {
+            Graph g = randomGraph(random, 3 + random.nextInt(10), 2, 1000, 1);
+
+            AnytimeOptimizer.Result res = AnytimeOptimizer.summarize(g, ExactOptimizer.DEFAULT_CUTOFF,
+                    Deadline.after(Duration.ofSeconds(5)));
+
+            assertThat(res.provenOptimal()).isTrue();
+            assertThat(res.graph().getEdgeCount()).isEqualTo(ExactOptimizer.summarize(g).getEdgeCount());
+            assertThat(Graph.equalBalances(g.balances(), res.graph().balances())).isTrue();
+        }
+    }
+
+    @Test
+    void summarize_expiredDeadlineStillKeepsBalances() {
+        Graph g = randomGraph(new Random(3), 300, 2, 1000, 1);
+
+        AnytimeOptimizer.Result res = AnytimeOptimizer.summarize(g, ExactOptimizer.DEFAULT_CUTOFF,
+                Deadline.after(Duration.ZERO));
+
+        assertThat(Graph.equalBalances(g.balances(), res.graph().balances())).isTrue();
+        assertThat(res.graph().getEdgeCount()).isLessThan(300);
+    }
+
+    @Test
+    void graphSummarize_expiredDeadlineStillKeepsBalances() {
+        Graph g = randomGraph(new Random(5), 500, 2, 1000, 1);
+
+        Graph res = Graph.summarize(g, Deadline.after(Duration.ZERO));
+
+        assertThat(Graph.equalBalances(g.balances(), res.balances())).isTrue();
+    }
+}
@@ -0,0 +1,53 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BalancePatternCacheTest {
+
+    @Test
+    void lookup_remapsPatternToPermutedMembers() {
+        BalancePatternCache cache = new BalancePatternCache();
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 1000);
+        g.addEdge(2, 3, 500);
+        cache.put(g, Graph.summarize(g));
+
+        // 같은 잔액 벡터를 다른 멤버 번호와 다른 간선으로 만든다.
+        Graph h = new Graph(5);
+        h.addEdge(4, 2, 1000);
+        h.addEdge(3, 1, 300);
+        h.addEdge(3, 0, 200);
+        h.addEdge(0, 1, 200);
+
+        Optional<Graph> hit = cache.lookup(h);
+
+        assertThat(hit).isPresent();
+        assertThat(Graph.equalBalances(h.balances(), hit.get().balances())).isTrue();
+        assertThat(hit.get().getEdgeCount()).isEqualTo(2);
+        assertThat(cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedWhenWeightExceeded() {
+        // 항목 하나의 무게: 잔액 2개 + 송금 1건 * 3 = 5
+        BalancePatternCache cache = new BalancePatternCache(10);
+        for (int amount = 1; amount <= 3; amount++) {
+            Graph g = new Graph(2);
+            g.addEdge(0, 1, amount * 100);
+            cache.put(g, g);
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.weight()).isEqualTo(10);
+        assertThat(cache.evictions()).isEqualTo(1);
+
+        Graph first = new Graph(2);
+        first.addEdge(0, 1, 100);
+        assertThat(cache.lookup(first)).isEmpty();
+        assertThat(cache.misses()).isEqualTo(1);
+    }
+}
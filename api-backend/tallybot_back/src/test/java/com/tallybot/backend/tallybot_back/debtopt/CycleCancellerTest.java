@@ -0,0 +1,51 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.tallybot.backend.tallybot_back.debtopt.DebtGraphTestFixtures.randomGraph;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CycleCancellerTest {
+
+    @Test
+    void cancel_subtractsSmallestAmountAlongCycle() {
+        // 0 -> 1 -> 2 -> 0 : 100, 50, 70
+        Graph g = new Graph(3);
+        g.addEdge(0, 1, 100);
+        g.addEdge(1, 2, 50);
+        g.addEdge(2, 0, 70);
+
+        int removed = CycleCanceller.cancel(g);
+
+        assertThat(removed).isEqualTo(1);
+        assertThat(g.getWeight(0, 1)).isEqualTo(50);
+        assertThat(g.getWeight(2, 0)).isEqualTo(20);
+        assertThat(g.getEdgeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void cancel_leavesNoCycleAndKeepsBalances() {
+        Random random = new Random(17);
+        for (int c = 0; c < 50; c++) {
+            int n = 2 + random.nextInt(300);
+            Graph g = randomGraph(random, n, 3, 1000, 1);
+            g.removeZero();
+            List<Integer> before = g.balances();
+            int edges = g.getEdgeCount();
+
+            int removed = CycleCanceller.cancel(g);
+
+            assertThat(Graph.equalBalances(before, g.balances())).isTrue();
+            assertThat(g.getEdgeCount()).isEqualTo(edges - removed);
+            int[] componentOf = new int[n];
+            int[] componentSize = new int[n];
+            CycleCanceller.stronglyConnectedComponents(g.csr(), componentOf, componentSize);
+            for (int size : componentSize) {
+                assertThat(size).isLessThanOrEqualTo(1);
+            }
+        }
+    }
+}
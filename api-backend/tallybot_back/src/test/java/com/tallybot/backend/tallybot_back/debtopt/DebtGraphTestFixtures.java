@@ -0,0 +1,31 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import java.util.Random;
+
+/*
+ * 테스트용 무작위 부채 그래프.
+ * 정점당 edgesPerMember개씩 간선을 뽑고 (자기 자신으로 가는 간선은 버린다), 가중치는 (1 ~ maxUnits) * unit
+ */
+final class DebtGraphTestFixtures {
+
+    private DebtGraphTestFixtures() {
+    }
+
+    static Graph randomGraph(Random random, int members, int edgesPerMember, int maxUnits, int unit) {
+        Graph g = new Graph(members);
+        addRandomEdges(g, random, 0, members, edgesPerMember, maxUnits, unit);
+        return g;
+    }
+
+    // 정점 offset ~ offset + members - 1 사이에만 간선을 더한다. (연결 성분을 나눠 만들 때)
+    static void addRandomEdges(Graph g, Random random, int offset, int members, int edgesPerMember,
+                               int maxUnits, int unit) {
+        for (int e = 0; e < members * edgesPerMember; e++) {
+            int u = offset + random.nextInt(members);
+            int v = offset + random.nextInt(members);
+            if (u != v) {
+                g.addEdge(u, v, (1 + random.nextInt(maxUnits)) * unit);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EdgeAccumulatorTest {
+
+    @Test
+    void add_netsOppositeEdgesAndDropsSelfLoops() {
+        EdgeAccumulator acc = new EdgeAccumulator();
+        acc.add(0, 1, 100);
+        acc.add(1, 0, 30);
+        acc.add(2, 2, 50);
+        acc.add(3, 1, 40);
+
+        List<String> edges = new ArrayList<>();
+        acc.forEachEdge((source, destination, weight) -> edges.add(source + "->" + destination + ":" + weight));
+
+        assertThat(acc.vertexCount()).isEqualTo(4);
+        assertThat(edges).containsExactly("0->1:70", "3->1:40");
+        assertThat(acc.balances()).containsExactly(-70, 110, 0, -40);
+    }
+
+    @Test
+    void optimize_streamsBalancedTransfers() {
+        Random random = new Random(17);
+        EdgeAccumulator acc = new EdgeAccumulator();
+        for (int e = 0; e < 3000; e++) {
+            acc.add(random.nextInt(80), random.nextInt(80), 1 + random.nextInt(10000));
+        }
+        long[] before = acc.balances();
+
+        long[] after = new long[acc.vertexCount()];
+        int emitted = acc.optimize(Graph::summarize, (source, destination, weight) -> {
+            after[source] -= weight;
+            after[destination] += weight;
+        });
+
+        assertThat(after).containsExactly(before);
+        assertThat(emitted).isLessThan(acc.vertexCount());
+    }
+
+    @Test
+    void forEachEdge_amountOverflowingInt_throws() {
+        EdgeAccumulator acc = new EdgeAccumulator();
+        acc.add(0, 1, Integer.MAX_VALUE);
+        acc.add(0, 1, 1);
+
+        assertThatThrownBy(acc::toGraph).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,54 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.tallybot.backend.tallybot_back.debtopt.DebtGraphTestFixtures.randomGraph;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExactOptimizerTest {
+
+    @Test
+    void summarize_findsIndependentZeroSumGroups() {
+        // 0 -> 1 (6000), 2 -> 3 (3000) 두 묶음이 섞여 있는 경우: 최소 송금 2번
+        Graph g = new Graph(4);
+        g.addEdge(0, 2, 5000);
+        g.addEdge(2, 1, 5000);
+        g.addEdge(2, 3, 3000);
+        g.addEdge(0, 3, 1000);
+        g.addEdge(3, 1, 1000);
+
+        Graph res = ExactOptimizer.summarize(g);
+
+        assertThat(res.getEdgeCount()).isEqualTo(2);
+        assertThat(Graph.equalBalances(g.balances(), res.balances())).isTrue();
+    }
+
+    @Test
+    void summarize_isNeverWorseThanHeuristic() {
+        Random random = new Random(7);
+        for (int c = 0; c < 100; c++) {
+            Graph g = randomGraph(random, 2 + random.nextInt(ExactOptimizer.DEFAULT_CUTOFF - 1), 2, 6, 1000);
+
+            List<Integer> before = g.balances();
+            Graph exact = ExactOptimizer.summarize(g);
+
+            assertThat(Graph.equalBalances(before, exact.balances())).isTrue();
+            assertThat(exact.getEdgeCount()).isLessThanOrEqualTo(Graph.summarize(g).getEdgeCount());
+        }
+    }
+
+    @Test
+    void summarize_aboveCutoff_fallsBackToHeuristic() {
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 1000);
+        g.addEdge(1, 2, 1000);
+        g.addEdge(2, 3, 1000);
+
+        Graph res = ExactOptimizer.summarize(g, 1);
+
+        assertThat(Graph.equalBalances(g.balances(), res.balances())).isTrue();
+    }
+}
@@ -0,0 +1,87 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.tallybot.backend.tallybot_back.debtopt.DebtGraphTestFixtures.randomGraph;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GraphCodecTest {
+
+    @Test
+    void toBytes_roundTripsEveryEdge() {
+        Graph g = randomGraph(new Random(1), 300, 3, 100000, 1);
+        g.removeEdge(5, 7);
+        g.addEdge(5, 7, 0);
+        g.removeEdge(10, 11);
+        g.addEdge(10, 11, Integer.MAX_VALUE);
+
+        byte[] bytes = GraphCodec.toBytes(g);
+        Graph decoded = GraphCodec.fromBytes(bytes);
+
+        assertThat(bytes).hasSize(GraphCodec.encodedSize(g));
+        assertSameEdges(decoded, g);
+    }
+
+    @Test
+    void readResult_keepsEngineAndProvenFlag() {
+        Graph g = randomGraph(new Random(2), 20, 3, 100000, 1);
+        OptimizationResult r = new OptimizationResult(g, OptimizerEngine.ANYTIME, true);
+        ByteBuffer buf = ByteBuffer.allocate(GraphCodec.encodedSize(r) + 3);
+
+        GraphCodec.write(r, buf);
+        buf.flip();
+        OptimizationResult decoded = GraphCodec.readResult(buf);
+
+        assertThat(buf.remaining()).isZero();
+        assertThat(decoded.engine()).isEqualTo(OptimizerEngine.ANYTIME);
+        assertThat(decoded.provenOptimal()).isTrue();
+        assertSameEdges(decoded.graph(), g);
+    }
+
+    @Test
+    void readCorpus_readsGraphsInOrder(@TempDir Path dir) {
+        Random random = new Random(3);
+        List<Graph> graphs = List.of(randomGraph(random, 5, 3, 100000, 1), new Graph(0),
+                randomGraph(random, 2000, 3, 100000, 1));
+        Path corpus = dir.resolve("graphs.bin");
+
+        GraphCodec.writeCorpus(corpus, graphs);
+        List<Graph> read = GraphCodec.readCorpus(corpus);
+
+        assertThat(read).hasSize(3);
+        for (int i = 0; i < graphs.size(); i++) {
+            assertSameEdges(read.get(i), graphs.get(i));
+        }
+    }
+
+    @Test
+    void read_truncatedData_throws() {
+        byte[] bytes = GraphCodec.toBytes(randomGraph(new Random(4), 10, 3, 100000, 1));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+
+        assertThatThrownBy(() -> GraphCodec.fromBytes(truncated))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void zigZag_roundTripsExtremes() {
+        for (int v : new int[]{0, -1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+            assertThat(GraphCodec.unZigZag(GraphCodec.zigZag(v))).isEqualTo(v);
+        }
+    }
+
+    private static void assertSameEdges(Graph actual, Graph expected) {
+        assertThat(actual.getVertexCount()).isEqualTo(expected.getVertexCount());
+        assertThat(actual.getEdgeCount()).isEqualTo(expected.getEdgeCount());
+        expected.forEachEdge((source, destination, weight) ->
+                assertThat(actual.getWeight(source, destination)).isEqualTo(weight));
+    }
+}
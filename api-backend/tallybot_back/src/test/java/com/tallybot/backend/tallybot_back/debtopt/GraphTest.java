@@ -0,0 +1,190 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import com.tallybot.backend.tallybot_back.debtopt.WeightStrategies.MaxRemove;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.tallybot.backend.tallybot_back.debtopt.DebtGraphTestFixtures.addRandomEdges;
+import static com.tallybot.backend.tallybot_back.debtopt.DebtGraphTestFixtures.randomGraph;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GraphTest {
+
+    @Test
+    void addEdge_accumulatesAndKeepsReverseDirection() {
+        Graph g = new Graph(3);
+        g.addEdge(0, 1, 100);
+        g.addEdge(0, 1, 50);
+
+        assertThat(g.getEdgeCount()).isEqualTo(1);
+        assertThat(g.getWeight(0, 1)).isEqualTo(150);
+        assertThat(g.getWeight(1, 0)).isEqualTo(-150);
+        assertThat(g.getWeight(0, 2)).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void plusWeight_removesEdgeWhenWeightBecomesZero() {
+        Graph g = new Graph(2);
+        g.addEdge(0, 1, 100);
+        g.plusWeight(1, 0, 100);
+
+        assertThat(g.getEdgeCount()).isZero();
+        assertThat(g.getWeight(0, 1)).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void addEdge_invalidVertex_throws() {
+        Graph g = new Graph(2);
+        assertThatThrownBy(() -> g.addEdge(0, 2, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void csrGraph_growsVertexSlotInPlace() {
+        CsrGraph g = new CsrGraph(50, 1);
+        for (int i = 1; i < 50; i++) {
+            g.addEdge(0, i, i);
+        }
+        for (int i = 1; i < 50; i += 2) {
+            g.removeEdge(i, 0);
+        }
+
+        assertThat(g.edgeCount()).isEqualTo(24);
+        assertThat(g.degree(0)).isEqualTo(24);
+        for (int i = 2; i < 50; i += 2) {
+            assertThat(g.getWeight(0, i)).isEqualTo(i);
+            assertThat(g.getWeight(i, 0)).isEqualTo(-i);
+        }
+    }
+
+    @Test
+    void findShortestPath_returnsVerticesInOrder() {
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1);
+
+        assertThat(g.findShortestPath(0, 3)).containsExactly(0, 1, 2, 3);
+        assertThat(new Graph(2).findShortestPath(0, 1)).isEmpty();
+    }
+
+    @Test
+    void findEulerCircuit_visitsEveryEdgeOnceWithoutChangingGraph() {
+        // 0-1-2-0, 0-3-4-0 두 삼각형
+        Graph g = new Graph(5);
+        g.addEdge(0, 1, 10);
+        g.addEdge(1, 2, 20);
+        g.addEdge(2, 0, 30);
+        g.addEdge(0, 3, 40);
+        g.addEdge(3, 4, 50);
+        g.addEdge(4, 0, 60);
+
+        EulerCircuit c = g.findEulerCircuit(0);
+
+        assertThat(c.vertices()).hasSize(7);
+        assertThat(c.vertices()[0]).isEqualTo(0);
+        assertThat(c.vertices()[6]).isEqualTo(0);
+        assertThat(c.weights()).hasSize(6);
+        for (int i = 0; i < 6; i++) {
+            assertThat(c.weights()[i]).isEqualTo(g.getWeight(c.vertices()[i], c.vertices()[i + 1]));
+        }
+        assertThat(g.getEdgeCount()).isEqualTo(6);
+    }
+
+    @Test
+    void integrateSameWeight_collapsesPassThroughChains() {
+        // 0 -> 1 -> 2 -> 3 모두 100: 1, 2는 그대로 거쳐 가기만 한다.
+        Graph g = new Graph(5);
+        g.addEdge(0, 1, 100);
+        g.addEdge(1, 2, 100);
+        g.addEdge(2, 3, 100);
+        g.addEdge(4, 1, 30);
+
+        g.integrateSameWeight();
+
+        assertThat(g.getWeight(0, 3)).isEqualTo(100);
+        assertThat(g.getWeight(4, 1)).isEqualTo(30);
+        assertThat(g.getEdgeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void integrateSameWeight_keepsBalancesOnDenseEqualWeights() {
+        Graph g = randomGraph(new Random(9), 200, 20, 3, 100);
+        g.removeZero();
+        List<Integer> before = g.balances();
+
+        g.integrateSameWeight();
+
+        assertThat(Graph.equalBalances(before, g.balances())).isTrue();
+    }
+
+    @Test
+    void removeAndSplit_cutsAtRemovedWeightAndSubtractsIt() {
+        // 0 -5-> 1 -3-> 2 -5-> 0 -2-> 3 -5-> 4 -1-> 0
+        EulerCircuit c = new EulerCircuit(new int[]{0, 1, 2, 0, 3, 4, 0}, new int[]{5, 3, 5, 2, 5, 1});
+        InfiniteIterator<WeightStrategy> ws = InfiniteIterator.begin(List.of(new MaxRemove()));
+
+        List<FlattedGraph> pieces = Graph.removeAndSplit(new FlattedGraph(ws, c), ws);
+
+        assertThat(pieces).hasSize(3);
+        List<String> edges = new ArrayList<>();
+        for (FlattedGraph piece : pieces) {
+            assertThat(piece.size()).isEqualTo(2);
+            piece.forEachEdge((source, destination, weight) -> edges.add(source + "->" + destination + ":" + weight));
+        }
+        assertThat(edges).containsExactly("1->2:-2", "0->3:-3", "4->0:-4");
+    }
+
+    @Test
+    void splitGraph_returnsCompactComponents() {
+        Graph g = new Graph(100);
+        g.addEdge(3, 50, 100);
+        g.addEdge(50, 97, 200);
+        g.addEdge(10, 20, 300);
+
+        List<UnionFind.Component> split = UnionFind.splitGraph(g);
+
+        assertThat(split).hasSize(2);
+        UnionFind.Component first = split.get(0);
+        assertThat(first.vertices()).containsExactly(3, 50, 97);
+        assertThat(first.graph().getVertexCount()).isEqualTo(3);
+        assertThat(first.graph().getWeight(0, 1)).isEqualTo(100);
+        assertThat(first.graph().getWeight(1, 2)).isEqualTo(200);
+        assertThat(split.get(1).vertices()).containsExactly(10, 20);
+    }
+
+    @Test
+    void summarize_keepsBalancesOnRandomGraphs() {
+        Random random = new Random(42);
+        for (int c = 0; c < 200; c++) {
+            Graph g = randomGraph(random, 2 + random.nextInt(15), 2, 10000, 1);
+
+            List<Integer> before = g.balances();
+            Graph summarized = Graph.summarize(g);
+
+            assertThat(Graph.equalBalances(before, summarized.balances())).isTrue();
+        }
+    }
+
+    @Test
+    void parallelSummarize_keepsBalancesAcrossComponents() {
+        Random random = new Random(3);
+        int components = 8;
+        int perComponent = 40;
+        Graph g = new Graph(components * perComponent);
+        for (int c = 0; c < components; c++) {
+            addRandomEdges(g, random, c * perComponent, perComponent, 3, 9000, 10);
+        }
+
+        ParallelSummarizer.Result result = new ParallelSummarizer(new ForkJoinPool(4), 16).summarizeWithStats(g);
+
+        assertThat(Graph.equalBalances(g.balances(), result.graph().balances())).isTrue();
+        assertThat(result.forkedTasks()).isGreaterThanOrEqualTo(components);
+        assertThat(result.workerThreads()).isPositive();
+    }
+}
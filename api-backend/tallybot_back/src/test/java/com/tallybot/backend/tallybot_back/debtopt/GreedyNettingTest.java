@@ -0,0 +1,36 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.tallybot.backend.tallybot_back.debtopt.DebtGraphTestFixtures.randomGraph;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GreedyNettingTest {
+
+    @Test
+    void summarize_keepsBalancesWithAtMostNMinusOneTransfers() {
+        Random random = new Random(7);
+        for (int c = 0; c < 50; c++) {
+            int n = 2 + random.nextInt(2000);
+            Graph g = randomGraph(random, n, 3, 100000, 1);
+
+            Graph netted = GreedyNetting.summarize(g);
+
+            assertThat(Graph.equalBalances(g.balances(), netted.balances())).isTrue();
+            assertThat(netted.getEdgeCount()).isLessThanOrEqualTo(Math.max(0, n - 1));
+        }
+    }
+
+    @Test
+    void summarize_matchesLargestDebtorWithLargestCreditor() {
+        // 0: -500, 1: -200, 2: +600, 3: +100
+        Graph netted = GreedyNetting.summarize(new int[]{-500, -200, 600, 100});
+
+        assertThat(netted.getWeight(0, 2)).isEqualTo(500);
+        assertThat(netted.getWeight(1, 2)).isEqualTo(100);
+        assertThat(netted.getWeight(1, 3)).isEqualTo(100);
+        assertThat(netted.getEdgeCount()).isEqualTo(3);
+    }
+}
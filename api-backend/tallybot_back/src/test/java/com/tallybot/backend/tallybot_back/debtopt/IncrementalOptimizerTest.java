@@ -0,0 +1,71 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.tallybot.backend.tallybot_back.debtopt.DebtGraphTestFixtures.randomGraph;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IncrementalOptimizerTest {
+
+    @Test
+    void reoptimize_onlyTouchesComponentsWithChangedBalances() {
+        // 성분 {0, 1}, {2, 3}, {4, 5}
+        Graph current = new Graph(6);
+        current.addEdge(0, 1, 1000);
+        current.addEdge(2, 3, 2000);
+        current.addEdge(4, 5, 3000);
+
+        // 1이 3에게 500을 더 받아야 한다.
+        int[] delta = {0, 500, 0, -500, 0, 0};
+        IncrementalOptimizer.Patch patch = IncrementalOptimizer.reoptimize(current, delta, Graph::summarize);
+
+        assertThat(patch.vertices()).containsExactly(0, 1, 2, 3);
+        assertThat(patch.replacedEdges()).isEqualTo(2);
+        assertThat(patch.graph().getWeight(4, 5)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(patch.graph().balances()).containsExactly(-1000, 1500, -2000, 1500, 0, 0);
+    }
+
+    @Test
+    void reoptimize_keepsBalancesOnRandomDeltas() {
+        Random random = new Random(9);
+        for (int c = 0; c < 200; c++) {
+            int n = 4 + random.nextInt(30);
+            Graph current = Graph.summarize(randomGraph(random, n, 1, 50, 100));
+
+            int[] delta = new int[n];
+            int payer = random.nextInt(n);
+            for (int k = 0; k < 3; k++) {
+                int p = random.nextInt(n);
+                int share = (1 + random.nextInt(20)) * 100;
+                delta[payer] += share;
+                delta[p] -= share;
+            }
+
+            IncrementalOptimizer.Patch patch = IncrementalOptimizer.reoptimize(current, delta, Graph::summarize);
+
+            // 바뀌지 않은 성분의 송금 + patch = 기존 잔액 + delta
+            boolean[] affected = new boolean[n];
+            for (int v : patch.vertices()) affected[v] = true;
+            Graph merged = new Graph(patch.graph());
+            current.forEachEdge((u, v, w) -> {
+                if (!affected[u]) merged.addEdge(u, v, w);
+            });
+
+            List<Integer> before = current.balances();
+            List<Integer> after = merged.balances();
+            for (int v = 0; v < n; v++) {
+                assertThat(after.get(v)).isEqualTo(before.get(v) + delta[v]);
+            }
+        }
+    }
+
+    @Test
+    void reoptimize_rejectsUnbalancedDelta() {
+        assertThatThrownBy(() -> IncrementalOptimizer.reoptimize(new Graph(2), new int[]{100, 0}, Graph::summarize))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,122 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static com.tallybot.backend.tallybot_back.debtopt.DebtGraphTestFixtures.randomGraph;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimizerCaptureTest {
+
+    @Test
+    void record_keepsBalanceShapeWithShuffledVertices(@TempDir Path dir) {
+        OptimizerCapture capture = new OptimizerCapture(dir, 1 << 20, 4);
+        Graph g = randomGraph(new Random(1), 40, 2, 10000, 1);
+
+        capture.record(g, OptimizerEngine.HEURISTIC, 1_500_000L, 39);
+        capture.close();
+        List<OptimizerCapture.Case> cases = OptimizerCapture.read(dir);
+
+        assertThat(cases).hasSize(1);
+        OptimizerCapture.Case c = cases.get(0);
+        assertThat(c.engine()).isEqualTo(OptimizerEngine.HEURISTIC);
+        assertThat(c.elapsedNanos()).isEqualTo(1_500_000L);
+        assertThat(c.resultEdges()).isEqualTo(39);
+        assertThat(c.graph().getEdgeCount()).isEqualTo(g.getEdgeCount());
+        assertThat(sorted(c.graph().balances())).isEqualTo(sorted(g.balances()));
+    }
+
+    @Test
+    void record_rollsFilesAndKeepsNewest(@TempDir Path dir) throws IOException {
+        OptimizerCapture capture = new OptimizerCapture(dir, 1500, 3);
+        Random random = new Random(2);
+        for (int i = 0; i < 40; i++) {
+            capture.record(randomGraph(random, 30, 2, 10000, 1), OptimizerEngine.NETTING, i, 0);
+        }
+        capture.close();
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.count()).isEqualTo(3);
+        }
+        List<OptimizerCapture.Case> cases = OptimizerCapture.read(dir);
+        assertThat(cases).isNotEmpty();
+        assertThat(cases.get(cases.size() - 1).elapsedNanos()).isEqualTo(39);
+    }
+
+    @Test
+    void read_skipsTruncatedLastRecord(@TempDir Path dir) throws IOException {
+        OptimizerCapture capture = new OptimizerCapture(dir, 1 << 20, 1);
+        Random random = new Random(3);
+        capture.record(randomGraph(random, 10, 2, 10000, 1), OptimizerEngine.EXACT, 1, 0);
+        capture.record(randomGraph(random, 10, 2, 10000, 1), OptimizerEngine.EXACT, 2, 0);
+        capture.close();
+
+        Path file = onlyFile(dir);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 2));
+
+        assertThat(OptimizerCapture.read(file)).hasSize(1);
+    }
+
+    @Test
+    void read_reportsUnknownEngineInsteadOfDroppingRest(@TempDir Path dir) throws IOException {
+        OptimizerCapture capture = new OptimizerCapture(dir, 1 << 20, 1);
+        Random random = new Random(5);
+        capture.record(randomGraph(random, 10, 2, 10000, 1), OptimizerEngine.EXACT, 1, 0);
+        capture.record(randomGraph(random, 10, 2, 10000, 1), OptimizerEngine.EXACT, 2, 0);
+        capture.close();
+
+        Path file = onlyFile(dir);
+        byte[] bytes = Files.readAllBytes(file);
+        // 머리(5바이트) 바로 뒤 첫 기록의 엔진
+        bytes[5] = 0x7f;
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> OptimizerCapture.read(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("알 수 없는 엔진");
+    }
+
+    @Test
+    void read_rejectsFileWithoutHeader(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("capture-0.bin");
+        Files.write(file, new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+
+        assertThatThrownBy(() -> OptimizerCapture.read(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("기록 파일 형식이 아닙니다");
+    }
+
+    @Test
+    void replayRun_keepsBalances() {
+        Graph g = randomGraph(new Random(4), 50, 2, 10000, 1);
+
+        OptimizerReplay.Run run = OptimizerReplay.run(OptimizerReplay.ENGINES.get("summarize"), g, 1);
+
+        assertThat(Graph.equalBalances(g.balances(), run.result().balances())).isTrue();
+        assertThat(run.nanos()).isPositive();
+    }
+
+    private static Path onlyFile(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private static List<Integer> sorted(List<Integer> values) {
+        List<Integer> res = new ArrayList<>(values);
+        Collections.sort(res);
+        return res;
+    }
+}
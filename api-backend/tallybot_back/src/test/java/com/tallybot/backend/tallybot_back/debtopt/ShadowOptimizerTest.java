@@ -0,0 +1,85 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+import static com.tallybot.backend.tallybot_back.debtopt.DebtGraphTestFixtures.randomGraph;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShadowOptimizerTest {
+
+    @Test
+    void offer_comparesCandidateOnCopyOfInput() throws Exception {
+        BlockingQueue<ShadowOptimizer.Comparison> out = new LinkedBlockingQueue<>();
+        Graph g = randomGraph(new Random(1), 30, 2, 10000, 1);
+        Graph primary = Graph.summarize(new Graph(g));
+        List<Integer> before = g.balances();
+
+        try (ShadowOptimizer shadow = ShadowOptimizer.named("netting", 1.0,
+                ShadowOptimizer.boundedExecutor(1, 4), out::add)) {
+            assertThat(shadow.offer(g, primary, 1_000L)).isTrue();
+            ShadowOptimizer.Comparison c = out.poll(10, TimeUnit.SECONDS);
+
+            assertThat(c).isNotNull();
+            assertThat(c.engine()).isEqualTo("netting");
+            assertThat(c.failure()).isNull();
+            assertThat(c.balanced()).isTrue();
+            assertThat(c.inputEdges()).isEqualTo(g.getEdgeCount());
+            assertThat(c.primaryEdges()).isEqualTo(primary.getEdgeCount());
+            assertThat(c.primaryAmount()).isEqualTo(ShadowOptimizer.totalAmount(primary));
+            assertThat(c.primaryNanos()).isEqualTo(1_000L);
+            assertThat(c.shadowEdges()).isPositive();
+            assertThat(shadow.submitted()).isEqualTo(1);
+        }
+        assertThat(g.balances()).isEqualTo(before);
+    }
+
+    @Test
+    void offer_reportsFailingCandidate() throws Exception {
+        BlockingQueue<ShadowOptimizer.Comparison> out = new LinkedBlockingQueue<>();
+        Graph g = randomGraph(new Random(2), 10, 2, 10000, 1);
+
+        try (ShadowOptimizer shadow = new ShadowOptimizer("broken", x -> {
+            throw new IllegalStateException("boom");
+        }, 1.0, ShadowOptimizer.boundedExecutor(1, 1), out::add)) {
+            shadow.offer(g, g, 0);
+            ShadowOptimizer.Comparison c = out.poll(10, TimeUnit.SECONDS);
+
+            assertThat(c).isNotNull();
+            assertThat(c.failure()).isInstanceOf(IllegalStateException.class);
+            assertThat(c.balanced()).isFalse();
+        }
+    }
+
+    @Test
+    void offer_skipsWhenPoolRejects() {
+        ExecutorService executor = ShadowOptimizer.boundedExecutor(1, 1);
+        executor.shutdown();
+        ShadowOptimizer shadow = ShadowOptimizer.named("summarize", 1.0, executor, c -> { });
+        Graph g = randomGraph(new Random(3), 10, 2, 10000, 1);
+
+        assertThat(shadow.offer(g, g, 0)).isFalse();
+        assertThat(shadow.rejected()).isEqualTo(1);
+        assertThat(shadow.submitted()).isZero();
+    }
+
+    @Test
+    void disabled_neverRuns() {
+        ShadowOptimizer shadow = ShadowOptimizer.disabled();
+        Graph g = randomGraph(new Random(4), 10, 2, 10000, 1);
+
+        assertThat(shadow.isEnabled()).isFalse();
+        assertThat(shadow.offer(g, g, 0)).isFalse();
+        shadow.close();
+    }
+
+    @Test
+    void named_unknownEngine_throws() {
+        assertThatThrownBy(() -> ShadowOptimizer.named("nope", 0.5, null, c -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,52 @@
+package com.tallybot.backend.tallybot_back.debtopt;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static com.tallybot.backend.tallybot_back.debtopt.DebtGraphTestFixtures.randomGraph;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StrategyPortfolioTest {
+
+    @Test
+    void lowerBound_neverExceedsExactMinimum() {
+        Random random = new Random(5);
+        for (int c = 0; c < 200; c++) {
+            Graph g = randomGraph(random, 2 + random.nextInt(12), 3, 5, 100);
+
+            assertThat(StrategyPortfolio.lowerBound(g.csr().balances()))
+                    .isLessThanOrEqualTo(ExactOptimizer.summarize(g).getEdgeCount());
+        }
+    }
+
+    @Test
+    void summarize_isNoWorseThanDefaultOrder() {
+        Random random = new Random(11);
+        try (StrategyPortfolio portfolio =
+                     new StrategyPortfolio(StrategyPortfolio.boundedExecutor(2), Duration.ofSeconds(30))) {
+            for (int c = 0; c < 20; c++) {
+                Graph g = randomGraph(random, 30 + random.nextInt(100), 3, 50, 100);
+
+                StrategyPortfolio.Result result = portfolio.summarize(g);
+
+                assertThat(Graph.equalBalances(g.balances(), result.graph().balances())).isTrue();
+                assertThat(result.graph().getEdgeCount()).isLessThanOrEqualTo(Graph.summarize(g).getEdgeCount());
+                assertThat(result.winners()).isNotEmpty();
+            }
+        }
+    }
+
+    @Test
+    void summarize_fallsBackToNettingWhenBudgetIsExhausted() {
+        Graph g = randomGraph(new Random(3), 2000, 3, 9000, 100);
+        try (StrategyPortfolio portfolio =
+                     new StrategyPortfolio(StrategyPortfolio.boundedExecutor(1), Duration.ZERO)) {
+            StrategyPortfolio.Result result = portfolio.summarize(g);
+
+            assertThat(result.winners()).containsExactly(StrategyPortfolio.FALLBACK);
+            assertThat(Graph.equalBalances(g.balances(), result.graph().balances())).isTrue();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApportionmentTest {
+
+    @Test
+    void apportion_givesLeftoverToLargestRemainders() {
+        // 10000원을 1:1:1로, 1000원을 고정 500 + 1/2 : 1/3으로
+        int[] amounts = {10000, 1000};
+        int[] start = {0, 3, 5};
+        int[] constants = {0, 0, 0, 500, 0};
+        int[] numerators = {1, 1, 1, 1, 1};
+        int[] denominators = {1, 1, 1, 2, 3};
+        long[] shares = new long[5];
+
+        Apportionment.apportion(amounts, start, constants, numerators, denominators, shares);
+
+        assertThat(shares).containsExactly(3334, 3333, 3333, 800, 200);
+    }
+
+    @Test
+    void apportion_sharesAlwaysSumToAmount() {
+        Random random = new Random(7);
+        int settlements = 500;
+        int[] amounts = new int[settlements];
+        int[] start = new int[settlements + 1];
+        for (int s = 0; s < settlements; s++) {
+            amounts[s] = 1 + random.nextInt(1_000_000);
+            start[s + 1] = start[s] + 1 + random.nextInt(30);
+        }
+        int n = start[settlements];
+        int[] constants = new int[n];
+        int[] numerators = new int[n];
+        int[] denominators = new int[n];
+        for (int i = 0; i < n; i++) {
+            numerators[i] = random.nextInt(7);
+            denominators[i] = 1 + random.nextInt(12);
+        }
+        numerators[0] = 1;
+        long[] shares = new long[n];
+
+        Apportionment.apportion(amounts, start, constants, numerators, denominators, shares);
+
+        for (int s = 0; s < settlements; s++) {
+            long sum = 0;
+            boolean weighted = false;
+            for (int i = start[s]; i < start[s + 1]; i++) {
+                sum += shares[i];
+                weighted |= numerators[i] != 0;
+                if (numerators[i] == 0) {
+                    assertThat(shares[i]).isZero();
+                }
+            }
+            assertThat(sum).isEqualTo(weighted ? amounts[s] : 0);
+        }
+    }
+
+    @Test
+    void apportion_nonPositiveDenominator_throws() {
+        assertThatThrownBy(() -> Apportionment.apportion(new int[]{100}, new int[]{0, 1},
+                new int[]{0}, new int[]{1}, new int[]{0}, new long[1]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalculateBalanceCacheTest {
+
+    private final CalculateBalanceCache cache = new CalculateBalanceCache();
+
+    @Test
+    void addDelta_isPendingAfterLoad() {
+        load(1L);
+
+        assertThat(cache.addDelta(1L, Map.of(10L, 500, 20L, -500))).isTrue();
+
+        CalculateBalanceCache.Snapshot snapshot = cache.pending(1L).orElseThrow();
+        assertThat(snapshot.balances()[snapshot.index().get(10L)]).isEqualTo(-1000);
+        assertThat(snapshot.pending()[snapshot.index().get(10L)]).isEqualTo(500);
+    }
+
+    @Test
+    void loader_deltaDuringLoad_isNotInstalled() {
+        load(1L);
+        CalculateBalanceCache.Loader loader = cache.loader(1L);
+        // 전체 재계산이 정산을 읽은 뒤 커밋된 변경
+        cache.addDelta(1L, Map.of(10L, 500, 20L, -500));
+        loader.add(10L, 20L, 1000);
+        loader.done();
+
+        assertThat(cache.pending(1L)).isEmpty();
+        assertThat(cache.addDelta(1L, Map.of(10L, 1))).isFalse();
+    }
+
+    @Test
+    void loader_deltaBeforeFirstLoad_isNotInstalled() {
+        CalculateBalanceCache.Loader loader = cache.loader(2L);
+        cache.addDelta(2L, Map.of(10L, 500, 20L, -500));
+        loader.add(10L, 20L, 1000);
+        loader.done();
+
+        assertThat(cache.addDelta(2L, Map.of(10L, 1))).isFalse();
+    }
+
+    @Test
+    void loader_startedBeforeInvalidate_stillInstalls() {
+        load(1L);
+        CalculateBalanceCache.Loader loader = cache.loader(1L);
+        // 증분 재최적화가 포기하고 전체 재계산으로 넘어간 경우
+        cache.invalidate(1L);
+        loader.add(10L, 20L, 300);
+        loader.done();
+
+        assertThat(cache.addDelta(1L, Map.of(10L, 1, 20L, -1))).isTrue();
+        CalculateBalanceCache.Snapshot snapshot = cache.pending(1L).orElseThrow();
+        assertThat(snapshot.balances()[snapshot.index().get(20L)]).isEqualTo(300);
+    }
+
+    private void load(Long calculateId) {
+        CalculateBalanceCache.Loader loader = cache.loader(calculateId);
+        loader.add(10L, 20L, 1000);
+        loader.done();
+    }
+}
@@ -0,0 +1,60 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.domain.*;
+import com.tallybot.backend.tallybot_back.repository.SettlementRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+
+@ExtendWith(MockitoExtension.class)
+class CalculateResultServiceTest {
+
+    @InjectMocks
+    private CalculateResultService calculateResultService;
+
+    @Mock private SettlementRepository settlementRepository;
+    @Mock private OptimizationService optimizationService;
+
+    @Test
+    void save_savesSettlementsOnceThenDetails() {
+        Calculate calculate = new Calculate();
+        Settlement first = settlementWith(calculate, new Participant.ParticipantKey(null, member(1L)));
+        Participant.ParticipantKey stale = new Participant.ParticipantKey(new Settlement(), member(2L));
+        Settlement second = settlementWith(calculate, stale);
+        List<Settlement> settlements = List.of(first, second);
+        List<CalculateDetail> details = List.of(new CalculateDetail(null, calculate, member(2L), member(1L), 1000));
+
+        calculateResultService.save(settlements, details);
+
+        // 참여자는 cascade로 함께 저장되므로 자기 정산을 가리켜야 한다.
+        assertThat(first.getParticipants()).allMatch(p -> p.getParticipantKey().getSettlement() == first);
+        assertThat(stale.getSettlement()).isSameAs(second);
+
+        InOrder order = inOrder(settlementRepository, optimizationService);
+        order.verify(settlementRepository).saveAll(settlements);
+        order.verify(optimizationService).saveDetails(calculate, details);
+        order.verifyNoMoreInteractions();
+    }
+
+    private static Settlement settlementWith(Calculate calculate, Participant.ParticipantKey key) {
+        Settlement settlement = new Settlement();
+        settlement.setCalculate(calculate);
+        settlement.setParticipants(Set.of(new Participant(key, 0, new Ratio(1, 1))));
+        return settlement;
+    }
+
+    private static Member member(Long id) {
+        Member member = new Member();
+        member.setMemberId(id);
+        return member;
+    }
+}
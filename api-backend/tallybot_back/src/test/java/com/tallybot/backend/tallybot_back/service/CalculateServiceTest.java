@@ -38,7 +38,9 @@ class CalculateServiceTest {
     @Mock private CalculateDetailRepository calculateDetailRepository;
     @Mock private SettlementRepository settlementRepository;
     @Mock private SettlementService settlementService;
-    @Mock private ParticipantRepository participantRepository;
+    @Mock private IncrementalOptimizationService incrementalOptimizationService;
+    @Mock private CalculateResultService calculateResultService;
+    @Mock private OptimizationService optimizationService;
 
 
     @Test
@@ -90,15 +92,19 @@ class CalculateServiceTest {
         when(chatRepository.findByUserGroupAndTimestampBetween(any(), any(), any())).thenReturn(chats);
         when(gptService.returnResults(chats)).thenReturn(gptResults);
         when(settlementService.toSettlements(gptResults, fakeCalculateId)).thenReturn(settlements);
-        when(settlementRepository.save(any(Settlement.class))).thenReturn(dummySettlement);
+        List<CalculateDetail> details = List.of(new CalculateDetail());
+        when(optimizationService.optimizeDetails(settlements)).thenReturn(details);
 
         // when
         Long returnedId = calculateService.startCalculate(request);
 
         // then: 비동기 작업이 모두 끝날 때까지 기다림
         await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> {
-            verify(settlementRepository, times(1)).save(any(Settlement.class));
-            verify(participantRepository, times(1)).save(any(Participant.class));
+            // 최적화는 저장 트랜잭션보다 먼저 끝난다.
+            InOrder order = inOrder(optimizationService, calculateResultService);
+            order.verify(optimizationService).optimizeDetails(settlements);
+            order.verify(calculateResultService, times(1)).save(settlements, details);
+            verify(settlementRepository, never()).save(any(Settlement.class));
         });
 
         assertEquals(fakeCalculateId, returnedId);
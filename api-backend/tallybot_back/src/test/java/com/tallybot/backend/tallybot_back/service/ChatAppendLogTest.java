@@ -0,0 +1,127 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.dto.ChatDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatAppendLogTest {
+
+    @Test
+    void read_returnsSyncedChatsAcrossSegments(@TempDir Path dir) {
+        try (ChatAppendLog log = new ChatAppendLog(dir, 1024)) {
+            long seq = log.appendAndSync(chats(0, 30));
+            log.append(chats(30, 1)); // sync 전이면 읽히지 않는다.
+
+            List<ChatAppendLog.Entry> entries = new ArrayList<>();
+            List<ChatAppendLog.Entry> batch;
+            while (!(batch = log.read(entries.size(), 7)).isEmpty()) {
+                entries.addAll(batch);
+            }
+
+            assertThat(seq).isEqualTo(30);
+            assertThat(log.segmentCount()).isGreaterThan(1);
+            assertThat(entries).extracting(ChatAppendLog.Entry::seq).containsExactlyElementsOf(range(1, 30));
+            ChatDto chat = entries.get(5).chat();
+            assertThat(chat.getGroupId()).isEqualTo(1L);
+            assertThat(chat.getMemberId()).isEqualTo(5L);
+            assertThat(chat.getMessage()).isEqualTo("메시지 5");
+            assertThat(chat.getTimestamp()).isEqualTo(LocalDateTime.of(2025, 6, 3, 18, 0, 5, 123));
+        }
+    }
+
+    @Test
+    void reopen_recoversChatsAndContinuesSeq(@TempDir Path dir) {
+        try (ChatAppendLog log = new ChatAppendLog(dir, 1024)) {
+            log.appendAndSync(chats(0, 20));
+        }
+
+        try (ChatAppendLog log = new ChatAppendLog(dir, 1024)) {
+            assertThat(log.read(0, 100)).hasSize(20);
+            assertThat(log.appendAndSync(chats(20, 1))).isEqualTo(21);
+            assertThat(log.read(20, 10)).extracting(e -> e.chat().getMessage()).containsExactly("메시지 20");
+        }
+    }
+
+    @Test
+    void reopen_dropsTornTail(@TempDir Path dir) throws IOException {
+        try (ChatAppendLog log = new ChatAppendLog(dir, 1 << 16)) {
+            log.appendAndSync(List.of(chat(0, "m0"), chat(1, "m1"), chat(2, "m2")));
+        }
+        // 세 번째 기록(50바이트씩, 100부터)의 메시지 바이트를 깨뜨린다.
+        try (FileChannel ch = FileChannel.open(segments(dir).get(0), StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[]{'x'}), 100 + 44);
+        }
+
+        try (ChatAppendLog log = new ChatAppendLog(dir, 1 << 16)) {
+            assertThat(log.lastSeq()).isEqualTo(2);
+            assertThat(log.read(0, 10)).extracting(e -> e.chat().getMessage()).containsExactly("m0", "m1");
+            assertThat(log.appendAndSync(List.of(chat(3, "m3")))).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void checkpoint_deletesFlushedSegmentsAndSurvivesReopen(@TempDir Path dir) throws IOException {
+        try (ChatAppendLog log = new ChatAppendLog(dir, 1024)) {
+            log.appendAndSync(chats(0, 30));
+            int before = segments(dir).size();
+
+            log.checkpoint(30);
+
+            assertThat(segments(dir)).hasSize(1).hasSizeLessThan(before);
+            assertThat(log.read(30, 10)).isEmpty();
+        }
+
+        try (ChatAppendLog log = new ChatAppendLog(dir, 1024)) {
+            assertThat(log.checkpoint()).isEqualTo(30);
+            assertThat(log.appendAndSync(chats(30, 1))).isEqualTo(31);
+            assertThat(log.read(30, 10)).extracting(ChatAppendLog.Entry::seq).containsExactly(31L);
+        }
+    }
+
+    @Test
+    void append_rejectsMessageLargerThanSegment(@TempDir Path dir) {
+        try (ChatAppendLog log = new ChatAppendLog(dir, 1024)) {
+            assertThatThrownBy(() -> log.append(List.of(chat(0, "a".repeat(2000)))))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(log.lastSeq()).isZero();
+        }
+    }
+
+    private static List<ChatDto> chats(int from, int n) {
+        List<ChatDto> res = new ArrayList<>();
+        for (int i = from; i < from + n; i++) {
+            res.add(chat(i, "메시지 " + i));
+        }
+        return res;
+    }
+
+    private static ChatDto chat(int i, String message) {
+        return new ChatDto(1L, LocalDateTime.of(2025, 6, 3, 18, 0, i, 123), (long) i, message);
+    }
+
+    private static List<Long> range(long from, long to) {
+        List<Long> res = new ArrayList<>();
+        for (long i = from; i <= to; i++) res.add(i);
+        return res;
+    }
+
+    private static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
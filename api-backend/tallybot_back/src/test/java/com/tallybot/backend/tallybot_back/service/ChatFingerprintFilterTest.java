@@ -0,0 +1,55 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.util.ChatFingerprint;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatFingerprintFilterTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2025, 6, 3, 18, 0);
+
+    @Test
+    void mightContain_neverMissesPutFingerprints() {
+        ChatFingerprintFilter filter = new ChatFingerprintFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(fingerprint(i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(fingerprint(i))).isTrue();
+        }
+    }
+
+    @Test
+    void mightContain_falsePositiveRateNearTarget() {
+        ChatFingerprintFilter filter = new ChatFingerprintFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(fingerprint(i));
+        }
+
+        int positives = 0;
+        for (int i = 10_000; i < 30_000; i++) {
+            if (filter.mightContain(fingerprint(i))) positives++;
+        }
+        assertThat(positives / 20_000.0).isLessThan(0.02);
+        assertThat(filter.positives()).isEqualTo(positives);
+    }
+
+    @Test
+    void fingerprint_dependsOnEveryField() {
+        String base = ChatFingerprint.of(1L, 2L, T, "밥 먹자");
+
+        assertThat(base).hasSize(16).isEqualTo(ChatFingerprint.of(1L, 2L, T, "밥 먹자"));
+        assertThat(ChatFingerprint.of(3L, 2L, T, "밥 먹자")).isNotEqualTo(base);
+        assertThat(ChatFingerprint.of(1L, 3L, T, "밥 먹자")).isNotEqualTo(base);
+        assertThat(ChatFingerprint.of(1L, 2L, T.plusSeconds(1), "밥 먹자")).isNotEqualTo(base);
+        assertThat(ChatFingerprint.of(1L, 2L, T, "밥 먹자!")).isNotEqualTo(base);
+    }
+
+    private static String fingerprint(int i) {
+        return ChatFingerprint.of(1L, 2L, T, "메시지 " + i);
+    }
+}
@@ -0,0 +1,169 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.dto.ChatDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ChatIngestServiceTest {
+
+    private final List<String> saved = new ArrayList<>();
+
+    @Test
+    void flush_savesEverythingAcceptedInBatches(@TempDir Path dir) {
+        ChatService chatService = recordingChatService();
+        try (ChatIngestService ingest = ingest(dir, chatService, 4, 5)) {
+            ingest.accept(chats("a", 3));
+            ingest.accept(chats("b", 3));
+
+            ingest.flush();
+
+            assertThat(saved).containsExactly("a0", "a1", "a2", "b0", "b1", "b2");
+            assertThat(ingest.pending()).isZero();
+            verify(chatService, atLeast(2)).saveChats(anyList());
+        }
+    }
+
+    @Test
+    void flush_skipsChatsRejectedOneByOne(@TempDir Path dir) {
+        ChatService chatService = recordingChatService();
+        doThrow(new IllegalArgumentException("Member not found"))
+                .when(chatService).saveChats(argThat(l -> l.stream().anyMatch(c -> c.getMessage().equals("a1"))));
+        try (ChatIngestService ingest = ingest(dir, chatService, 10, 5)) {
+            ingest.accept(chats("a", 3));
+
+            ingest.flush();
+
+            assertThat(saved).containsExactly("a0", "a2");
+            assertThat(ingest.pending()).isZero();
+            assertThat(ingest.rejectedCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void flush_movesPersistentFailureAsideAfterMaxAttempts(@TempDir Path dir) {
+        ChatService chatService = recordingChatService();
+        doThrow(new IllegalStateException("Data too long"))
+                .when(chatService).saveChats(argThat(l -> l.stream().anyMatch(c -> c.getMessage().equals("a1"))));
+        try (ChatIngestService ingest = ingest(dir, chatService, 10, 2)) {
+            ingest.accept(chats("a", 3));
+
+            assertThatThrownBy(ingest::flush).hasMessage("Data too long");
+            assertThat(ingest.pending()).isEqualTo(3);
+
+            ingest.flush();
+
+            assertThat(saved).containsExactly("a0", "a2");
+            assertThat(ingest.pending()).isZero();
+            assertThat(ingest.rejectedCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void flush_outageIsNotMovedAside(@TempDir Path dir) {
+        ChatService chatService = mock(ChatService.class);
+        doThrow(new IllegalStateException("DB down")).when(chatService).saveChats(anyList());
+        try (ChatIngestService ingest = ingest(dir, chatService, 10, 1)) {
+            ingest.accept(chats("a", 2));
+
+            assertThatThrownBy(ingest::flush).hasMessage("DB down");
+            assertThat(ingest.pending()).isEqualTo(2);
+            assertThat(ingest.rejectedCount()).isZero();
+        }
+    }
+
+    @Test
+    void flush_timesOut(@TempDir Path dir) {
+        CountDownLatch release = new CountDownLatch(1);
+        ChatService chatService = mock(ChatService.class);
+        doAnswer(inv -> {
+            release.await();
+            return 0;
+        }).when(chatService).saveChats(anyList());
+        try (ChatIngestService ingest = new ChatIngestService(new ChatAppendLog(dir, 1 << 16),
+                new ChatAppendLog(dir.resolve("rejected"), 1 << 16), chatService, 10,
+                Duration.ofHours(1), Duration.ofMillis(50), 5)) {
+            ingest.accept(chats("a", 1));
+
+            assertThatThrownBy(ingest::flush).isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("timed out");
+            release.countDown();
+        }
+    }
+
+    @Test
+    void accept_rejectsMessageLongerThanColumn(@TempDir Path dir) {
+        try (ChatIngestService ingest = ingest(dir, recordingChatService(), 10, 5)) {
+            String message = "a".repeat(ChatIngestService.MAX_MESSAGE_BYTES + 1);
+            List<ChatDto> chats = List.of(new ChatDto(1L, LocalDateTime.of(2025, 6, 3, 18, 0), 2L, message));
+
+            assertThatThrownBy(() -> ingest.accept(chats)).hasMessage("Message too large");
+            assertThat(ingest.pending()).isZero();
+        }
+    }
+
+    @Test
+    void flush_failureKeepsChatsForRetry(@TempDir Path dir) {
+        ChatService chatService = mock(ChatService.class);
+        doThrow(new IllegalStateException("DB down")).when(chatService).saveChats(anyList());
+        try (ChatIngestService ingest = ingest(dir, chatService, 10, 5)) {
+            ingest.accept(chats("a", 2));
+
+            assertThatThrownBy(ingest::flush).hasMessage("DB down");
+            assertThat(ingest.pending()).isEqualTo(2);
+        }
+
+        // 재시작하면 checkpoint 이후 기록을 다시 옮긴다.
+        ChatService restarted = recordingChatService();
+        try (ChatIngestService ingest = ingest(dir, restarted, 10, 5)) {
+            ingest.flush();
+
+            assertThat(saved).containsExactly("a0", "a1");
+        }
+    }
+
+    @Test
+    void disabled_flushDoesNothing() {
+        ChatIngestService ingest = ChatIngestService.disabled();
+
+        ingest.flush();
+
+        assertThat(ingest.isEnabled()).isFalse();
+        assertThat(ingest.pending()).isZero();
+    }
+
+    // 주기 flush가 끼어들지 않도록 간격을 길게 둔다.
+    private static ChatIngestService ingest(Path dir, ChatService chatService, int batchSize, int maxAttempts) {
+        return new ChatIngestService(new ChatAppendLog(dir, 1 << 16), new ChatAppendLog(dir.resolve("rejected"), 1 << 16),
+                chatService, batchSize, Duration.ofHours(1), Duration.ofSeconds(10), maxAttempts);
+    }
+
+    private ChatService recordingChatService() {
+        ChatService chatService = mock(ChatService.class);
+        doAnswer(inv -> {
+            List<ChatDto> chats = inv.getArgument(0);
+            chats.forEach(c -> saved.add(c.getMessage()));
+            return 0;
+        }).when(chatService).saveChats(anyList());
+        return chatService;
+    }
+
+    private static List<ChatDto> chats(String prefix, int n) {
+        List<ChatDto> res = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            res.add(new ChatDto(1L, LocalDateTime.of(2025, 6, 3, 18, 0, i), 2L, prefix + i));
+        }
+        return res;
+    }
+}
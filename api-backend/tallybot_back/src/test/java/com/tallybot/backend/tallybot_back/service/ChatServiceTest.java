@@ -1,21 +1,28 @@
 package com.tallybot.backend.tallybot_back.service;
 
+import com.tallybot.backend.tallybot_back.domain.Chat;
 import com.tallybot.backend.tallybot_back.domain.UserGroup;
 import com.tallybot.backend.tallybot_back.domain.Member;
 import com.tallybot.backend.tallybot_back.dto.ChatDto;
 import com.tallybot.backend.tallybot_back.repository.ChatRepository;
 import com.tallybot.backend.tallybot_back.repository.GroupRepository;
 import com.tallybot.backend.tallybot_back.repository.MemberRepository;
+import com.tallybot.backend.tallybot_back.util.ChatFingerprint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
@@ -32,31 +39,100 @@ class ChatServiceTest {
         groupRepository = mock(GroupRepository.class);
         memberRepository = mock(MemberRepository.class);
         chatRepository = mock(ChatRepository.class);
-        chatService = new ChatService(groupRepository, memberRepository, chatRepository);
+        chatService = new ChatService(groupRepository, memberRepository, chatRepository,
+                new ChatFingerprintFilter(1000, 0.01));
     }
 
     @Test
     void saveChats_success() {
         ChatDto dto = new ChatDto(1L, LocalDateTime.now(), 1001L, "테스트");
 
-        UserGroup mockUserGroup = new UserGroup();
-        Member mockMember = new Member();
-        mockMember.setMemberId(1001L);
+        UserGroup mockUserGroup = group(1L);
+        Member mockMember = member(1001L, mockUserGroup);
 
-        when(groupRepository.findById(anyLong())).thenReturn(Optional.of(mockUserGroup));
-        when(memberRepository.findByMemberIdAndUserGroup(anyLong(), eq(mockUserGroup)))
-                .thenReturn(Optional.of(mockMember));
+        when(groupRepository.findAllById(any())).thenReturn(List.of(mockUserGroup));
+        when(memberRepository.findByMemberIdIn(List.of(1001L))).thenReturn(List.of(mockMember));
 
         chatService.saveChats(List.of(dto));
 
         verify(chatRepository, times(1)).saveAll(anyList());
     }
 
+    @Test
+    void saveChats_resolvesOnceAndSavesInChunks() {
+        ReflectionTestUtils.setField(chatService, "uploadBatchSize", 2);
+        UserGroup userGroup = group(1L);
+        List<ChatDto> dtos = List.of(
+                new ChatDto(1L, LocalDateTime.now(), 1001L, "1"),
+                new ChatDto(1L, LocalDateTime.now(), 1002L, "2"),
+                new ChatDto(1L, LocalDateTime.now(), 1001L, "3"),
+                new ChatDto(1L, LocalDateTime.now(), 1002L, "4"),
+                new ChatDto(1L, LocalDateTime.now(), 1001L, "5"));
+
+        when(groupRepository.findAllById(any())).thenReturn(List.of(userGroup));
+        when(memberRepository.findByMemberIdIn(List.of(1001L, 1002L)))
+                .thenReturn(List.of(member(1001L, userGroup), member(1002L, userGroup)));
+
+        chatService.saveChats(dtos);
+
+        verify(groupRepository, times(1)).findAllById(any());
+        verify(memberRepository, times(1)).findByMemberIdIn(anyList());
+        verify(groupRepository, never()).findById(anyLong());
+        verify(chatRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    void saveChats_skipsDuplicatesInRequestAndDb() {
+        LocalDateTime t = LocalDateTime.of(2025, 6, 3, 18, 0);
+        UserGroup userGroup = group(1L);
+        List<ChatDto> dtos = List.of(
+                new ChatDto(1L, t, 1001L, "저장됨"),
+                new ChatDto(1L, t, 1001L, "새 채팅"),
+                new ChatDto(1L, t, 1001L, "새 채팅"));
+        String stored = ChatFingerprint.of(1L, 1001L, t, "저장됨");
+
+        when(groupRepository.findAllById(any())).thenReturn(List.of(userGroup));
+        when(memberRepository.findByMemberIdIn(List.of(1001L))).thenReturn(List.of(member(1001L, userGroup)));
+        when(chatRepository.findFingerprintsByGroupId(1L)).thenReturn(List.of(stored));
+        when(chatRepository.findFingerprints(eq(1L), anyCollection())).thenReturn(List.of(stored));
+
+        int deduplicated = chatService.saveChats(dtos);
+
+        assertThat(deduplicated).isEqualTo(2);
+        ArgumentCaptor<List<Chat>> captor = ArgumentCaptor.forClass(List.class);
+        verify(chatRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(Chat::getMessage).containsExactly("새 채팅");
+        // 필터가 없다고 한 "새 채팅"은 DB에서 확인하지 않는다.
+        verify(chatRepository).findFingerprints(1L, List.of(stored));
+    }
+
+    @Test
+    void saveChats_retriesWithoutChatsInsertedConcurrently() {
+        LocalDateTime t = LocalDateTime.of(2025, 6, 3, 18, 0);
+        UserGroup userGroup = group(1L);
+        List<ChatDto> dtos = List.of(new ChatDto(1L, t, 1001L, "a"), new ChatDto(1L, t, 1001L, "b"));
+        String raced = ChatFingerprint.of(1L, 1001L, t, "a");
+
+        when(groupRepository.findAllById(any())).thenReturn(List.of(userGroup));
+        when(memberRepository.findByMemberIdIn(List.of(1001L))).thenReturn(List.of(member(1001L, userGroup)));
+        when(chatRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("uk_chat_group_fingerprint"))
+                .thenReturn(List.of());
+        when(chatRepository.findFingerprints(eq(1L), anyCollection())).thenReturn(List.of(raced));
+
+        int deduplicated = chatService.saveChats(dtos);
+
+        assertThat(deduplicated).isEqualTo(1);
+        ArgumentCaptor<List<Chat>> captor = ArgumentCaptor.forClass(List.class);
+        verify(chatRepository, times(2)).saveAll(captor.capture());
+        assertThat(captor.getAllValues().get(1)).extracting(Chat::getMessage).containsExactly("b");
+    }
+
     @Test
     void saveChats_groupNotFound() {
         ChatDto dto = new ChatDto(999L, LocalDateTime.now(), 1001L, "하이");
 
-        when(groupRepository.findById(999L)).thenReturn(Optional.empty());
+        when(groupRepository.findAllById(any())).thenReturn(List.of());
 
         try {
             chatService.saveChats(List.of(dto));
@@ -68,12 +144,36 @@ class ChatServiceTest {
 
     @Test
     void groupAndMembersExist_returnsFalseIfMissing() {
-        when(groupRepository.existsById(1L)).thenReturn(true);
-        when(memberRepository.existsById(999L)).thenReturn(false);
+        when(groupRepository.findAllById(any())).thenReturn(List.of(group(1L)));
+        when(memberRepository.findByMemberIdIn(List.of(999L))).thenReturn(List.of());
 
         ChatDto dto = new ChatDto(1L, LocalDateTime.now(), 999L, "하이");
 
         boolean result = chatService.groupAndMembersExist(List.of(dto));
         assert !result;
     }
+
+    @Test
+    void groupAndMembersExist_returnsFalseIfMemberOfOtherGroup() {
+        when(groupRepository.findAllById(any())).thenReturn(List.of(group(1L)));
+        when(memberRepository.findByMemberIdIn(List.of(1001L))).thenReturn(List.of(member(1001L, group(2L))));
+
+        ChatDto dto = new ChatDto(1L, LocalDateTime.now(), 1001L, "하이");
+
+        boolean result = chatService.groupAndMembersExist(List.of(dto));
+        assert !result;
+    }
+
+    private static UserGroup group(Long id) {
+        UserGroup userGroup = new UserGroup();
+        userGroup.setGroupId(id);
+        return userGroup;
+    }
+
+    private static Member member(Long id, UserGroup userGroup) {
+        Member member = new Member();
+        member.setMemberId(id);
+        member.setUserGroup(userGroup);
+        return member;
+    }
 }
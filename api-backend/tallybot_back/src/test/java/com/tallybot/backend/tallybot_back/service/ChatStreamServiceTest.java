@@ -0,0 +1,117 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.dto.ChatDto;
+import com.tallybot.backend.tallybot_back.dto.ChatUploadProgressDto;
+import com.tallybot.backend.tallybot_back.exception.ChatUploadException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ChatStreamServiceTest {
+
+    private ChatService chatService;
+    private ChatStreamService chatStreamService;
+    private final List<List<String>> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        chatService = mock(ChatService.class);
+        // saveChats에 넘긴 목록은 호출 뒤 비워지므로 메시지만 복사해 둔다.
+        doAnswer(inv -> {
+            List<ChatDto> chunk = inv.getArgument(0);
+            saved.add(chunk.stream().map(ChatDto::getMessage).toList());
+            return 0;
+        }).when(chatService).saveChats(anyList());
+        chatStreamService = new ChatStreamService(chatService, Jackson2ObjectMapperBuilder.json().build(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(chatStreamService, "chunkSize", 2);
+    }
+
+    @Test
+    void upload_savesInChunks() {
+        ChatUploadProgressDto progress = chatStreamService.upload(body(5), 0);
+
+        assertThat(progress.getCommitted()).isEqualTo(5);
+        assertThat(progress.getChunks()).isEqualTo(3);
+        assertThat(saved).containsExactly(List.of("m0", "m1"), List.of("m2", "m3"), List.of("m4"));
+    }
+
+    @Test
+    void upload_skipsCommittedPrefix() {
+        ChatUploadProgressDto progress = chatStreamService.upload(body(5), 3);
+
+        assertThat(progress.getCommitted()).isEqualTo(5);
+        assertThat(saved).containsExactly(List.of("m3", "m4"));
+    }
+
+    @Test
+    void upload_failureReportsLastCommittedChunk() {
+        doAnswer(inv -> {
+            List<ChatDto> chunk = inv.getArgument(0);
+            saved.add(chunk.stream().map(ChatDto::getMessage).toList());
+            return 0;
+        }).doThrow(new IllegalArgumentException("Member not found"))
+                .when(chatService).saveChats(anyList());
+
+        ChatUploadException ex = catchThrowableOfType(
+                () -> chatStreamService.upload(body(5), 0), ChatUploadException.class);
+
+        assertThat(ex.getCommitted()).isEqualTo(2);
+        assertThat(ex.getChunks()).isEqualTo(1);
+        assertThat(ex.getMessage()).isEqualTo("Member not found");
+    }
+
+    @Test
+    void upload_invalidElement_stopsBeforeItsChunk() {
+        String json = "[" + chat(0) + "," + chat(1) + ","
+                + "{\"groupId\":1,\"memberId\":2,\"message\":\"no timestamp\"}]";
+
+        ChatUploadException ex = catchThrowableOfType(
+                () -> chatStreamService.upload(in(json), 0), ChatUploadException.class);
+
+        assertThat(ex.getCommitted()).isEqualTo(2);
+        assertThat(ex.getMessage()).isEqualTo("Essential field must not be null");
+        verify(chatService, times(1)).saveChats(anyList());
+    }
+
+    @Test
+    void upload_truncatedBody_throwsInvalidInput() {
+        String json = "[" + chat(0) + "," + chat(1) + "," + chat(2);
+
+        ChatUploadException ex = catchThrowableOfType(
+                () -> chatStreamService.upload(in(json), 0), ChatUploadException.class);
+
+        assertThat(ex.getMessage()).isEqualTo("Invalid input");
+        assertThat(ex.getCommitted()).isEqualTo(2);
+    }
+
+    private static InputStream body(int n) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(chat(i));
+        }
+        return in(sb.append(']').toString());
+    }
+
+    private static String chat(int i) {
+        return "{\"groupId\":1,\"timestamp\":\"2025-06-03 18:0" + (i % 10) + ":00\",\"memberId\":2,\"message\":\"m" + i + "\"}";
+    }
+
+    private static InputStream in(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -38,6 +38,9 @@ public class SettlementServiceTest {
     @Mock
     private SettlementRepository settlementRepository;
 
+    @Mock
+    private IncrementalOptimizationService incrementalOptimizationService;
+
     @InjectMocks
     private SettlementService settlementService;
 
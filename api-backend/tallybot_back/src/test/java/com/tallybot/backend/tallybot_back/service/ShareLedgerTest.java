@@ -0,0 +1,47 @@
+package com.tallybot.backend.tallybot_back.service;
+
+import com.tallybot.backend.tallybot_back.domain.Member;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShareLedgerTest {
+
+    @Test
+    void add_netsOppositeSharesAndDropsSelfShares() {
+        Member a = member(10L);
+        Member b = member(20L);
+        Member c = member(30L);
+        ShareLedger ledger = new ShareLedger();
+
+        ledger.add(a, b, 100);
+        ledger.add(b, a, 30);
+        ledger.add(c, c, 50);
+        ledger.add(c, a, 40);
+        // 같은 id의 다른 인스턴스도 같은 멤버로 본다.
+        ledger.add(member(30L), a, 10);
+
+        List<String> shares = new ArrayList<>();
+        ledger.forEachShare((from, to, amount) ->
+                shares.add(ledger.member(from).getMemberId() + "->" + ledger.member(to).getMemberId() + ":" + amount));
+
+        assertThat(ledger.memberCount()).isEqualTo(3);
+        assertThat(shares).containsExactly("10->20:70", "30->10:50");
+        assertThat(ledger.balances()).containsExactly(-20, 70, -50);
+    }
+
+    @Test
+    void add_unsavedMember_throws() {
+        ShareLedger ledger = new ShareLedger();
+        assertThatThrownBy(() -> ledger.add(new Member(), member(1L), 100))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Member member(Long id) {
+        return Member.builder().memberId(id).nickname("m" + id).build();
+    }
+}
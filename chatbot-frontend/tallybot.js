@@ -182,7 +182,8 @@ function onMessage(msg) {
     return;
   }
   
-  if(res.statusCode !== 200) {
+  // 202: 서버가 비동기 수집 모드로 받아 둔 경우
+  if(res.statusCode !== 200 && res.statusCode !== 202) {
     msg.reply('채팅 저장에 실패했습니다.');
     return;
   }